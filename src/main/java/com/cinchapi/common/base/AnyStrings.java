@@ -15,24 +15,16 @@
  */
 package com.cinchapi.common.base;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
+import java.io.IOException;
 import java.text.MessageFormat;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
-import com.google.common.primitives.Doubles;
-import com.google.common.primitives.Floats;
-import com.google.common.primitives.Ints;
-import com.google.common.primitives.Longs;
 
 /**
  * A collection of functions that efficiently operate on {@link String strings}.
@@ -46,42 +38,87 @@ import com.google.common.primitives.Longs;
 public class AnyStrings {
 
     /**
-     * The set of all unicode double quotation mark characters
-     *
+     * The unicode characters that are confusable with a double quotation mark.
+     * <p>
      * See <a href=
      * "http://www.unicode.org/Public/security/revision-03/confusablesSummary.txt"
      * >http://www.unicode.org/Public/security/revision-03/confusablesSummary.
      * txt</a> for the list of characters
      * </p>
      **/
-    private static final Set<Character> DOUBLE_QUOTE_UNICODE_CHARS = ImmutableSet
-            .of('ʺ', '˝', 'ˮ', '˶', 'ײ', '״', '“', '”', '‟', '″', '‶', '〃',
-                    '＂');
+    private static final String DOUBLE_QUOTE_UNICODE_CHARS = "ʺ˝ˮ˶ײ״“”‟″‶〃＂";
+
     /**
-     * The set of all unicode single quotation mark characters
-     *
+     * The unicode characters that are confusable with a single quotation mark.
+     * <p>
      * See <a href=
      * "http://www.unicode.org/Public/security/revision-03/confusablesSummary.txt"
      * >http://www.unicode.org/Public/security/revision-03/confusablesSummary.
      * txt</a> for the list of characters
      * </p>
      **/
-    private static final Set<Character> SINGLE_QUOTE_UNICODE_CHARS = ImmutableSet
-            .of('`', 'ꞌ', 'ʻ', 'ʼ', 'י', 'ʹ', 'ʽ', 'ʾ', 'ˊ', 'ˋ', 'ߴ', 'ߵ', 'ʹ',
-                    '׳', '’', '˴', '՚', '՝', '‘', '‛', '′', '‵', '´', '΄', '᾽',
-                    '᾿', '`', '´', '῾', '＇', '｀');
+    private static final String SINGLE_QUOTE_UNICODE_CHARS = "`ꞌʻʼיʹʽʾˊˋߴߵʹ׳’˴"
+            + "՚՝‘‛′‵´΄᾽᾿`´῾＇｀";
 
     /**
-     * The start of a placeholder sequence for the
-     * {@link #format(String, Object...)} method.
+     * The number of entries in each block of the
+     * {@link #CONFUSABLE_REPLACEMENTS} table, which is indexed by the low byte
+     * of a char.
      */
-    private static final char PLACEHOLDER_BEGIN = '{';
+    private static final int CONFUSABLE_BLOCK_SIZE = 256;
 
     /**
-     * The end of a placeholder sequence for the
-     * {@link #format(String, Object...)} method.
+     * The block of the {@link #CONFUSABLE_REPLACEMENTS} table for each value of
+     * the high byte of a char. Most chars map to block {@code 0}, which has no
+     * confusables, so the table only needs a few blocks.
      */
-    private static final char PLACEHOLDER_END = '}';
+    private static final byte[] CONFUSABLE_BLOCKS = new byte[256];
+
+    /**
+     * The canonical char for each "confusable" unicode char, or
+     * {@link Characters#NULL} if the char isn't confusable, in blocks that are
+     * found using {@link #CONFUSABLE_BLOCKS}.
+     */
+    private static final char[] CONFUSABLE_REPLACEMENTS;
+
+    static {
+        String confusables = DOUBLE_QUOTE_UNICODE_CHARS
+                + SINGLE_QUOTE_UNICODE_CHARS;
+        int blocks = 1;
+        for (int i = 0; i < confusables.length(); ++i) {
+            int high = confusables.charAt(i) >>> 8;
+            if(CONFUSABLE_BLOCKS[high] == 0) {
+                CONFUSABLE_BLOCKS[high] = (byte) blocks++;
+            }
+        }
+        CONFUSABLE_REPLACEMENTS = new char[blocks * CONFUSABLE_BLOCK_SIZE];
+        int doubles = DOUBLE_QUOTE_UNICODE_CHARS.length();
+        for (int i = 0; i < confusables.length(); ++i) {
+            char replacement = i < doubles ? '"' : '\'';
+            CONFUSABLE_REPLACEMENTS[confusableIndex(
+                    confusables.charAt(i))] = replacement;
+        }
+    }
+
+    /**
+     * The buffer that each thread reuses in
+     * {@link #formatToThreadLocal(String, Object...)}, which is {@code null}
+     * while it is in use.
+     */
+    private static final ThreadLocal<StringBuilder> FORMAT_BUFFER = ThreadLocal
+            .withInitial(StringBuilder::new);
+
+    /**
+     * The largest capacity of a {@link #FORMAT_BUFFER} that is reused.
+     */
+    private static final int MAX_RETAINED_FORMAT_BUFFER_CAPACITY = 8192;
+
+    /**
+     * The {@link NumberLexer} that each thread reuses to parse numbers, so
+     * that the primitive {@code tryParse} methods don't allocate.
+     */
+    private static final ThreadLocal<NumberLexer> NUMBER_LEXER = ThreadLocal
+            .withInitial(NumberLexer::new);
 
     /**
      * Perform a {@link String#compareToIgnoreCase(String) case insensitive
@@ -407,134 +444,110 @@ public class AnyStrings {
         if(args == null || args.length == 0) {
             return template;
         }
-        else if(template.isEmpty()) {
-            return formatExtraArgs(new StringBuilder(), args, 0, args.length)
-                    .toString();
+        else {
+            CompiledTemplate compiled = CompiledTemplate.cached(template);
+            return compiled != null ? compiled.format(args)
+                    : CompiledTemplate.formatOnce(template, args);
+        }
+    }
+
+    /**
+     * Format the {@code template} with the {@code args}, following the rules
+     * of {@link #format(String, Object...)}, and append the result to
+     * {@code out} (i.e. a {@link StringBuilder} or a {@link java.io.Writer
+     * Writer}) instead of creating a new {@link String}.
+     * 
+     * @param out the {@link Appendable} that receives the formatted string
+     * @param template a template that may or may not contain placeholders for
+     *            variable {@code args}
+     * @param args the values to inject in the {@code template} placeholders,
+     *            respectively
+     * @return {@code out} for convenience
+     */
+    public static <T extends Appendable> T formatTo(T out, String template,
+            Object... args) {
+        CompiledTemplate compiled = CompiledTemplate.cached(template);
+        return compiled != null ? compiled.formatTo(out, args)
+                : CompiledTemplate.formatOnceTo(out, template, args);
+    }
+
+    /**
+     * Format the {@code template} with the {@code args}, following the rules
+     * of {@link #format(String, Object...)}, into a buffer that is reused by
+     * the calling thread.
+     * <p>
+     * No {@link String} is created, so this is useful when the formatted
+     * string is immediately copied elsewhere (i.e. appended to a log buffer or
+     * encoded into a {@link java.nio.ByteBuffer ByteBuffer}). The returned
+     * {@link CharSequence} is overwritten by the next call from the same
+     * thread, so it must not be retained.
+     * </p>
+     * <p>
+     * This method is reentrant: if it is called while formatting the
+     * {@code args} (i.e. from the {@link Object#toString() toString} method of
+     * one of them), the nested call formats into a new buffer.
+     * </p>
+     * 
+     * @param template a template that may or may not contain placeholders for
+     *            variable {@code args}
+     * @param args the values to inject in the {@code template} placeholders,
+     *            respectively
+     * @return the formatted chars, which are only valid until the next call
+     */
+    public static CharSequence formatToThreadLocal(String template,
+            Object... args) {
+        StringBuilder sb = FORMAT_BUFFER.get();
+        if(sb == null) {
+            // The buffer is being filled by an outer call on this thread
+            return formatTo(new StringBuilder(), template, args);
         }
         else {
-            StringBuilder sb = new StringBuilder();
-            char[] chars = template.toCharArray();
-            int templateLength = chars.length;
-            int argsLength = args.length;
-            int templateIndex = 0;
-            int argsIndex = 0;
-            int copyOffset = 0;
-            int copyLength = 0;
-            while (templateIndex < templateLength) {
-                char c = chars[templateIndex];
-                int next = templateIndex + 1;
-                char nextc = next < templateLength ? chars[next]
-                        : Characters.NULL;
-                if(c == Characters.ESCAPE && nextc == PLACEHOLDER_BEGIN) {
-                    // When escaping the placeholder, simply append any
-                    // characters that are currently buffered (see copyLength)
-                    // and then skip the escape character before proceeding
-                    if(copyLength > 0) {
-                        sb.append(chars, copyOffset, copyLength);
-                    }
-                    sb.append(chars, templateIndex + 1, 1); // append
-                                                            // PLACEHOLDER_BEGIN
-                                                            // so that we don't
-                                                            // execute the block
-                                                            // below on the next
-                                                            // loop
-                    templateIndex += 2;
-                    copyOffset = templateIndex;
-                    copyLength = 0;
-                }
-                else if(c == PLACEHOLDER_BEGIN && nextc == PLACEHOLDER_END
-                        && argsIndex < argsLength) {
-                    sb.append(chars, copyOffset, copyLength);
-                    sb.append(String.valueOf(args[argsIndex]));
-                    templateIndex = next + 1;
-                    ++argsIndex;
-                    copyOffset = templateIndex;
-                    copyLength = 0;
-                }
-                else {
-                    ++templateIndex;
-                    ++copyLength;
-                }
+            sb.setLength(0);
+            FORMAT_BUFFER.set(null);
+            try {
+                return formatTo(sb, template, args);
             }
-            sb.append(chars, copyOffset, copyLength);
-            if(argsIndex < argsLength) {
-                // If there are remaining args that weren't represented in the
-                // template with variable markers, simply append them as a list
-                sb.append(": ");
-                formatExtraArgs(sb, args, argsIndex, argsLength);
+            finally {
+                // Don't let a single large message pin a large buffer
+                FORMAT_BUFFER.set(
+                        sb.capacity() > MAX_RETAINED_FORMAT_BUFFER_CAPACITY
+                                ? new StringBuilder()
+                                : sb);
             }
-            return sb.toString();
         }
     }
 
     /**
      * Return a set that contains every possible substring of {@code string}
      * excluding pure whitespace strings.
+     * <p>
+     * The set has O(n<sup>2</sup>) elements, so for all but short strings,
+     * use {@link DistinctSubstrings#of(String)} to count, look up or iterate
+     * through the substrings without materializing them.
+     * </p>
      * 
      * @param string the string to divide into substrings
      * @return the set of substrings
      */
     public static Set<String> getAllSubStrings(String string) {
-        Set<String> result = Sets.newHashSet();
-        for (int i = 0; i < string.length(); ++i) {
-            for (int j = i + 1; j <= string.length(); ++j) {
-                String substring = string.substring(i, j).trim();
-                if(!com.google.common.base.Strings.isNullOrEmpty(substring)) {
-                    result.add(substring);
-                }
-            }
-        }
-        return result;
+        return Sets.newHashSet(DistinctSubstrings.of(string));
     }
 
     /**
-     * An optimized version of {@link String#contains(CharSequence)} to see if
-     * {@code needle} is a substring of {@code haystack}.
+     * Return {@code true} if {@code needle} is a substring of
+     * {@code haystack}.
+     * <p>
+     * To search for many needles at once,
+     * {@link MultiSubstringSearcher#compile(CharSequence...) compile} them
+     * together.
+     * </p>
      * 
      * @param needle the substring for which to search
      * @param haystack the string in which to search for the substring
      * @return {@code true} if {@code needle} is a substring
      */
     public static boolean isSubString(String needle, String haystack) {
-        if(needle.length() > haystack.length()) {
-            return false;
-        }
-        else if(needle.length() == haystack.length()) {
-            return needle.equals(haystack);
-        }
-        else {
-            char[] n = needle.toCharArray();
-            char[] h = haystack.toCharArray();
-            int npos = 0;
-            int hpos = 0;
-            int stop = h.length - n.length;
-            int hstart = -1;
-            while (hpos < h.length && npos < n.length) {
-                char hi = h[hpos];
-                char ni = n[npos];
-                if(hi == ni) {
-                    if(hstart == -1) {
-                        hstart = hpos;
-                    }
-                    ++npos;
-                    ++hpos;
-                }
-                else {
-                    if(npos > 0) {
-                        npos = 0;
-                        hpos = hstart + 1;
-                        hstart = -1;
-                    }
-                    else {
-                        ++hpos;
-                    }
-                    if(hpos > stop) {
-                        return false;
-                    }
-                }
-            }
-            return npos == n.length;
-        }
+        return haystack.indexOf(needle) >= 0;
     }
 
     /**
@@ -549,11 +562,13 @@ public class AnyStrings {
      */
     public static boolean isWithinQuotes(String string,
             Character... forceTreatAsNonQuoteChar) {
-        string = replaceUnicodeConfusables(string, forceTreatAsNonQuoteChar);
         if(string.length() > 2) {
-            char first = string.charAt(0);
+            char first = replaceUnicodeConfusable(string.charAt(0),
+                    forceTreatAsNonQuoteChar);
             if(first == '"' || first == '\'') {
-                char last = string.charAt(string.length() - 1);
+                char last = replaceUnicodeConfusable(
+                        string.charAt(string.length() - 1),
+                        forceTreatAsNonQuoteChar);
                 return first == last;
             }
         }
@@ -629,6 +644,10 @@ public class AnyStrings {
      * >http://www.unicode.org/Public/security/revision-03/confusablesSummary.
      * txt</a> for a list of characters that are considered to be confusable.
      * </p>
+     * <p>
+     * If there aren't any characters to replace, {@code string} is returned
+     * without being copied.
+     * </p>
      * 
      * @param string the {@link String} in which the replacements should occur
      * @param a list of characters that should not be replaced, even if they are
@@ -637,22 +656,52 @@ public class AnyStrings {
      */
     public static String replaceUnicodeConfusables(String string,
             Character... preserve) {
-        Set<Character> preserved = Arrays.stream(preserve)
-                .collect(Collectors.toSet());
-        char[] chars = string.toCharArray();
-        for (int i = 0; i < chars.length; ++i) {
-            char c = chars[i];
-            if(DOUBLE_QUOTE_UNICODE_CHARS.contains(c)
-                    && !preserved.contains(c)) {
-                c = '"';
+        int length = string.length();
+        for (int i = 0; i < length; ++i) {
+            char c = string.charAt(i);
+            if(replaceUnicodeConfusable(c, preserve) != c) {
+                char[] chars = string.toCharArray();
+                for (int j = i; j < length; ++j) {
+                    chars[j] = replaceUnicodeConfusable(chars[j], preserve);
+                }
+                return String.valueOf(chars);
             }
-            else if(SINGLE_QUOTE_UNICODE_CHARS.contains(c)
-                    && !preserved.contains(c)) {
-                c = '\'';
+        }
+        return string;
+    }
+
+    /**
+     * Replace all instances of "confusable" unicode characters in
+     * {@code sequence} with a canoncial/normalized character, following the
+     * rules of {@link #replaceUnicodeConfusables(String, Character...)}, and
+     * append the result to {@code out}.
+     * 
+     * @param out the {@link Appendable} that receives the result
+     * @param sequence the {@link CharSequence} in which the replacements should
+     *            occur
+     * @param preserve a list of characters that should not be replaced, even
+     *            if they are a confusable
+     * @return {@code out} for convenience
+     */
+    public static <T extends Appendable> T replaceUnicodeConfusablesTo(T out,
+            CharSequence sequence, Character... preserve) {
+        try {
+            int length = sequence.length();
+            int start = 0;
+            for (int i = 0; i < length; ++i) {
+                char c = sequence.charAt(i);
+                char replacement = replaceUnicodeConfusable(c, preserve);
+                if(replacement != c) {
+                    out.append(sequence, start, i).append(replacement);
+                    start = i + 1;
+                }
             }
-            chars[i] = c;
+            out.append(sequence, start, length);
+            return out;
+        }
+        catch (IOException e) {
+            throw CheckedExceptions.throwAsRuntimeException(e);
         }
-        return String.valueOf(chars);
     }
 
     /**
@@ -752,10 +801,96 @@ public class AnyStrings {
         }
     }
 
+    /**
+     * Return the value of {@code value} as a {@code double} if it is a number
+     * according to the rules of {@link #tryParseNumber(String)}. Otherwise,
+     * return {@code defaultValue}.
+     * <p>
+     * Unlike {@link #tryParseNumber(String)}, this doesn't box the value or
+     * decide whether it would fit in a {@code float}, and it accepts any
+     * {@link CharSequence}.
+     * </p>
+     * 
+     * @param value the value to parse
+     * @param defaultValue the value to return if {@code value} isn't a number
+     * @return the parsed value or {@code defaultValue}
+     */
+    public static double tryParseDouble(CharSequence value,
+            double defaultValue) {
+        NumberLexer lexer = NUMBER_LEXER.get();
+        switch (lexer.lex(value)) {
+        case NumberLexer.INTEGER:
+        case NumberLexer.LONG:
+            return lexer.integer();
+        case NumberLexer.DECIMAL:
+        case NumberLexer.DOUBLE:
+            try {
+                return lexer.toDouble(value);
+            }
+            catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        default:
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Return the value of {@code value} as an {@code int} if
+     * {@link #tryParseNumber(String)} would parse it as an {@link Integer}.
+     * Otherwise, return {@code defaultValue}.
+     * <p>
+     * Unlike {@link #tryParseNumber(String)}, this doesn't box the value and
+     * it accepts any {@link CharSequence}.
+     * </p>
+     * 
+     * @param value the value to parse
+     * @param defaultValue the value to return if {@code value} isn't an
+     *            {@code int}
+     * @return the parsed value or {@code defaultValue}
+     */
+    public static int tryParseInt(CharSequence value, int defaultValue) {
+        NumberLexer lexer = NUMBER_LEXER.get();
+        return lexer.lex(value) == NumberLexer.INTEGER ? (int) lexer.integer()
+                : defaultValue;
+    }
+
+    /**
+     * Return the value of {@code value} as a {@code long} if
+     * {@link #tryParseNumber(String)} would parse it as an {@link Integer} or
+     * a {@link Long}. Otherwise, return {@code defaultValue}.
+     * <p>
+     * Unlike {@link #tryParseNumber(String)}, this doesn't box the value and
+     * it accepts any {@link CharSequence}.
+     * </p>
+     * 
+     * @param value the value to parse
+     * @param defaultValue the value to return if {@code value} isn't a
+     *            {@code long}
+     * @return the parsed value or {@code defaultValue}
+     */
+    public static long tryParseLong(CharSequence value, long defaultValue) {
+        NumberLexer lexer = NUMBER_LEXER.get();
+        switch (lexer.lex(value)) {
+        case NumberLexer.INTEGER:
+        case NumberLexer.LONG:
+            return lexer.integer();
+        default:
+            return defaultValue;
+        }
+    }
+
     /**
      * This method efficiently tries to parse {@code value} into a
      * {@link Number} object if possible. If the string is not a number, then
      * the method returns {@code null} as quickly as possible.
+     * <p>
+     * The string is scanned once to determine whether it is an
+     * {@link Integer}, a {@link Long} or a decimal. A decimal is returned as a
+     * {@link Float} if that doesn't lose any precision (i.e. the shortest
+     * string that represents the {@code float} is the same as the one that
+     * represents the {@code double}) and as a {@link Double} otherwise.
+     * </p>
      * 
      * @param value
      * @return a Number object that represents the string or {@code null} if it
@@ -763,84 +898,29 @@ public class AnyStrings {
      */
     @Nullable
     public static Number tryParseNumber(String value) {
-        int size = value.length();
-        if(value == null || size == 0) {
+        if(value == null) {
             return null;
         }
-        else if(value.charAt(0) == '0' && size > 1 && value.charAt(1) != '.') {
-            // Do not parse a string as a number if it has a leading 0 that is
-            // not followed by a decimal (i.e. 007)
-            return null;
-        }
-        boolean decimal = false;
-        boolean scientific = false;
-        for (int i = 0; i < size; ++i) {
-            char c = value.charAt(i);
-            if(!Character.isDigit(c)) {
-                if(i == 0 && c == '-'
-                        || (scientific && (c == '-' || c == '+'))) {
-                    continue;
-                }
-                else if(c == '.') {
-                    if(!decimal && size > 1) {
-                        decimal = true;
-                    }
-                    else {
-                        // Since we've already seen a decimal, the appearance of
-                        // another one suggests this is an IP address instead of
-                        // a number
-                        return null;
-                    }
-                }
-                else if(i == size - 1 && c == 'D' && size > 1) {
-                    // Respect the convention to coerce numeric strings to
-                    // Double objects by appending a single 'D' character.
-                    return Double.valueOf(value.substring(0, i));
-                }
-                else if((c == 'E' || c == 'e') && i < size - 1) {
-                    // CON-627: Account for valid representations of scientific
-                    // notation
-                    if(!scientific) {
-                        scientific = true;
-                    }
-                    else {
-                        // Since we've already seen a scientific notation
-                        // indicator, another one suggests that this is not
-                        // really a number
-                        return null;
-                    }
-                }
-                else {
-                    return null;
-                }
-            }
-        }
+        NumberLexer lexer = NUMBER_LEXER.get();
         try {
-            if(decimal || scientific) {
-                // Try to return a float (for space compactness) if it is
-                // possible to fit the entire decimal without any loss of
-                // precision. In order to do this, we have to compare the string
-                // output of both the parsed double and the parsed float. This
-                // is kind of inefficient, so substitute for a better way if it
-                // exists.
-                double d = Doubles.tryParse(value);
-                float f = Floats.tryParse(value);
-                if(String.valueOf(d).equals(String.valueOf(f))) {
-                    return f;
-                }
-                else {
-                    return d;
-                }
-            }
-            else if(value.equals("-")) { // CON-597
+            switch (lexer.lex(value)) {
+            case NumberLexer.INTEGER:
+                return (int) lexer.integer();
+            case NumberLexer.LONG:
+                return lexer.integer();
+            case NumberLexer.DECIMAL:
+                return lexer.toDecimal(value);
+            case NumberLexer.DOUBLE:
+                // Respect the convention to coerce numeric strings to Double
+                // objects by appending a single 'D' character.
+                return lexer.toDouble(value);
+            case NumberLexer.MALFORMED:
+                throw new NumberFormatException();
+            default:
                 return null;
             }
-            else {
-                return MoreObjects.firstNonNull(Ints.tryParse(value),
-                        Longs.tryParse(value));
-            }
         }
-        catch (NullPointerException e) {
+        catch (NumberFormatException e) {
             throw new NumberFormatException(format(
                     "{} appears to be a number but cannot be parsed as such",
                     value));
@@ -915,37 +995,49 @@ public class AnyStrings {
     }
 
     /**
-     * Execute the rules for formatting {@code args} with no corresponding
-     * placeholders in the original template.
-     * 
-     * @param sb the {@link StringBuilder} that contains the formatted string;
-     *            modified in-place within this method and returned for
-     *            convenience
-     * @param args all of the placeholder values
-     * @param argsIndex the index of the first of the {@code args} that is
-     *            "extra"
-     * @param argsLength the length of {@code args}, required so it is not
-     *            computed twice
-     * @return {@code sb} for convenience
-     */
-    private static StringBuilder formatExtraArgs(StringBuilder sb,
-            Object[] args, int argsIndex, int argsLength) {
-        for (int i = argsIndex; i < argsLength; ++i) {
-            Object arg = args[i];
-            int nextIndex = i + 1;
-            if(nextIndex == argsLength && arg instanceof Exception) {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ((Exception) arg).printStackTrace(new PrintStream(baos));
-                sb.append(baos.toString());
-            }
-            else {
-                sb.append(String.valueOf(arg));
-            }
-            if(nextIndex != argsLength) {
-                sb.append(' ');
+     * Return the canonical/normalized character for {@code c} if it is a
+     * "confusable" unicode quote character. Otherwise, return {@code c}.
+     * 
+     * @param c
+     * @return the normalized character
+     */
+    static char replaceUnicodeConfusable(char c) {
+        char replacement = CONFUSABLE_REPLACEMENTS[confusableIndex(c)];
+        return replacement != Characters.NULL ? replacement : c;
+    }
+
+    /**
+     * Return the index of {@code c} in the {@link #CONFUSABLE_REPLACEMENTS}
+     * table.
+     * 
+     * @param c
+     * @return the index
+     */
+    private static int confusableIndex(char c) {
+        return CONFUSABLE_BLOCKS[c >>> 8] * CONFUSABLE_BLOCK_SIZE
+                + (c & (CONFUSABLE_BLOCK_SIZE - 1));
+    }
+
+    /**
+     * Return the canonical/normalized character for {@code c} if it is a
+     * "confusable" unicode quote character that isn't one of the
+     * {@code preserve} characters. Otherwise, return {@code c}.
+     * 
+     * @param c
+     * @param preserve characters that should not be replaced
+     * @return the normalized character
+     */
+    private static char replaceUnicodeConfusable(char c,
+            Character[] preserve) {
+        char replacement = replaceUnicodeConfusable(c);
+        if(replacement != c) {
+            for (Character preserved : preserve) {
+                if(preserved != null && preserved == c) {
+                    return c;
+                }
             }
         }
-        return sb;
+        return replacement;
     }
 
 }
@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * A template for {@link AnyStrings#format(String, Object...)} that has been
+ * parsed into its literal segments and the positions of its <code>{}</code>
+ * placeholders, so it can be formatted repeatedly without scanning the
+ * template again.
+ * <p>
+ * Escaped placeholders (i.e. <code>\{</code>) are resolved when the template
+ * is compiled, so formatting is a single pass that appends each literal
+ * segment and argument to a buffer that is sized for the template up front.
+ * The result is always the same as that of
+ * {@link AnyStrings#format(String, Object...)}.
+ * </p>
+ * <p>
+ * {@link AnyStrings#format(String, Object...)} keeps a small, bounded cache of
+ * compiled templates that is keyed by the identity of the template, so the
+ * constant templates that are used in logging and error paths are only
+ * compiled once. A template is only compiled the second time that it is
+ * seen; until then, it is formatted directly, so a template that is built on
+ * the fly doesn't cause a compilation (or evict a constant template) each
+ * time it is used. Call {@link #compile(String)} to hold on to a compiled
+ * template directly.
+ * </p>
+ * <p>
+ * A template can also be {@link #formatTo(Appendable, Object...) formatted
+ * into} any {@link Appendable} (i.e. a {@link StringBuilder} or a
+ * {@link java.io.Writer Writer}) without creating an intermediate
+ * {@link String}.
+ * </p>
+ * <p>
+ * An instance is immutable and thread-safe.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+public final class CompiledTemplate {
+
+    /**
+     * The cache of compiled templates, where each template maps to a slot by
+     * its identity; the number of slots must be a power of two. The slots are
+     * read and written without synchronization. This is safe because every
+     * field of a {@link CompiledTemplate} is final, so a thread that reads an
+     * instance from a slot sees it fully constructed.
+     */
+    private static final CompiledTemplate[] CACHE = new CompiledTemplate[256];
+
+    /**
+     * The number of chars that are reserved for each argument when sizing the
+     * buffer for a formatted string.
+     */
+    private static final int ESTIMATED_ARG_LENGTH = 16;
+
+    /**
+     * The start of a placeholder sequence.
+     */
+    private static final char PLACEHOLDER_BEGIN = '{';
+
+    /**
+     * The end of a placeholder sequence.
+     */
+    private static final char PLACEHOLDER_END = '}';
+
+    /**
+     * The template that was most recently seen, but not compiled, in each
+     * slot of the {@link #CACHE}.
+     */
+    private static final String[] SEEN = new String[CACHE.length];
+
+    /**
+     * Return a {@link CompiledTemplate} for the {@code template}.
+     * 
+     * @param template a template that may or may not contain placeholders for
+     *            variable args
+     * @return the {@link CompiledTemplate}
+     */
+    public static CompiledTemplate compile(String template) {
+        return new CompiledTemplate(template);
+    }
+
+    /**
+     * Return the {@link CompiledTemplate} for the {@code template} from the
+     * cache. If it isn't cached, it is compiled and cached if it was seen
+     * before. Otherwise, it is remembered and {@code null} is returned, so
+     * the caller should {@link #formatOnce(String, Object...) format it
+     * directly}.
+     * 
+     * @param template a template that may or may not contain placeholders for
+     *            variable args
+     * @return the {@link CompiledTemplate} or {@code null}
+     */
+    @Nullable
+    static CompiledTemplate cached(String template) {
+        int slot = System.identityHashCode(template) & (CACHE.length - 1);
+        CompiledTemplate compiled = CACHE[slot];
+        if(compiled != null && compiled.template == template) {
+            return compiled;
+        }
+        else if(SEEN[slot] == template) {
+            compiled = new CompiledTemplate(template);
+            CACHE[slot] = compiled;
+            return compiled;
+        }
+        else {
+            SEEN[slot] = template;
+            return null;
+        }
+    }
+
+    /**
+     * Inject each of the {@code args} in place of the placeholders in the
+     * {@code template}, respectively, following the rules of
+     * {@link AnyStrings#format(String, Object...)}, without compiling it.
+     * 
+     * @param template a template that may or may not contain placeholders for
+     *            variable args
+     * @param args the values to inject in the template placeholders,
+     *            respectively
+     * @return the formatted string
+     */
+    static String formatOnce(String template, Object... args) {
+        if(args == null || args.length == 0) {
+            return template;
+        }
+        else {
+            StringBuilder sb = new StringBuilder(
+                    template.length() + ESTIMATED_ARG_LENGTH * args.length);
+            return formatOnceTo(sb, template, args).toString();
+        }
+    }
+
+    /**
+     * Inject each of the {@code args} in place of the placeholders in the
+     * {@code template}, respectively, following the rules of
+     * {@link AnyStrings#format(String, Object...)}, without compiling it, and
+     * append the result to {@code out}.
+     * 
+     * @param out the {@link Appendable} that receives the formatted string
+     * @param template a template that may or may not contain placeholders for
+     *            variable args
+     * @param args the values to inject in the template placeholders,
+     *            respectively
+     * @return {@code out} for convenience
+     */
+    static <T extends Appendable> T formatOnceTo(T out, String template,
+            Object... args) {
+        try {
+            if(args == null || args.length == 0) {
+                out.append(template);
+                return out;
+            }
+            int templateLength = template.length();
+            int placeholders = 0;
+            int literal = 0;
+            int i = 0;
+            while (i < templateLength - 1) {
+                char c = template.charAt(i);
+                char nextc = template.charAt(i + 1);
+                if(c == Characters.ESCAPE && nextc == PLACEHOLDER_BEGIN) {
+                    out.append(template, literal, i).append(PLACEHOLDER_BEGIN);
+                    i += 2;
+                    literal = i;
+                }
+                else if(c == PLACEHOLDER_BEGIN && nextc == PLACEHOLDER_END) {
+                    out.append(template, literal, i);
+                    if(placeholders < args.length) {
+                        out.append(String.valueOf(args[placeholders]));
+                    }
+                    else {
+                        out.append(PLACEHOLDER_BEGIN).append(PLACEHOLDER_END);
+                    }
+                    ++placeholders;
+                    i += 2;
+                    literal = i;
+                }
+                else {
+                    ++i;
+                }
+            }
+            out.append(template, literal, templateLength);
+            if(placeholders < args.length) {
+                if(!template.isEmpty()) {
+                    out.append(": ");
+                }
+                appendExtraArgs(out, args, placeholders);
+            }
+            return out;
+        }
+        catch (IOException e) {
+            throw CheckedExceptions.throwAsRuntimeException(e);
+        }
+    }
+
+    /**
+     * Append the {@code args}, starting at {@code argsIndex}, that don't have a
+     * placeholder in the template to {@code out}, separated by spaces. If the
+     * last arg is an {@link Exception}, its stack trace is appended.
+     * 
+     * @param out the {@link Appendable} that receives the formatted string
+     * @param args all of the placeholder values
+     * @param argsIndex the index of the first of the {@code args} that is
+     *            "extra"
+     * @throws IOException if {@code out} cannot be appended
+     */
+    private static void appendExtraArgs(Appendable out, Object[] args,
+            int argsIndex) throws IOException {
+        int argsLength = args.length;
+        for (int i = argsIndex; i < argsLength; ++i) {
+            Object arg = args[i];
+            int nextIndex = i + 1;
+            if(nextIndex == argsLength && arg instanceof Exception) {
+                StringWriter trace = new StringWriter();
+                ((Exception) arg).printStackTrace(new PrintWriter(trace));
+                out.append(trace.getBuffer());
+            }
+            else {
+                out.append(String.valueOf(arg));
+            }
+            if(nextIndex != argsLength) {
+                out.append(' ');
+            }
+        }
+    }
+
+    /**
+     * The total number of chars in the {@link #literals}.
+     */
+    private final int length;
+
+    /**
+     * The literal segments of the template, with escapes resolved; there is
+     * one more segment than there are placeholders, and the placeholder
+     * {@code i} is between the segments {@code i} and {@code i + 1}.
+     */
+    private final String[] literals;
+
+    /**
+     * The template that was compiled.
+     */
+    private final String template;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param template the template to compile
+     */
+    private CompiledTemplate(String template) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int templateLength = template.length();
+        int length = 0;
+        int i = 0;
+        while (i < templateLength) {
+            char c = template.charAt(i);
+            char nextc = i + 1 < templateLength ? template.charAt(i + 1)
+                    : Characters.NULL;
+            if(c == Characters.ESCAPE && nextc == PLACEHOLDER_BEGIN) {
+                // Drop the escape char and keep the PLACEHOLDER_BEGIN as a
+                // literal so that it doesn't start a placeholder
+                literal.append(PLACEHOLDER_BEGIN);
+                i += 2;
+            }
+            else if(c == PLACEHOLDER_BEGIN && nextc == PLACEHOLDER_END) {
+                length += literal.length();
+                literals.add(literal.toString());
+                literal.setLength(0);
+                i += 2;
+            }
+            else {
+                literal.append(c);
+                ++i;
+            }
+        }
+        length += literal.length();
+        literals.add(literal.toString());
+        this.literals = literals.toArray(new String[literals.size()]);
+        this.length = length;
+        this.template = template;
+    }
+
+    /**
+     * Inject each of the {@code args} in place of the template's placeholders,
+     * respectively, following the rules of
+     * {@link AnyStrings#format(String, Object...)}.
+     * 
+     * @param args the values to inject in the template placeholders,
+     *            respectively
+     * @return the formatted string
+     */
+    public String format(Object... args) {
+        if(args == null || args.length == 0) {
+            return template;
+        }
+        else {
+            StringBuilder sb = new StringBuilder(
+                    length + ESTIMATED_ARG_LENGTH * args.length);
+            return formatTo(sb, args).toString();
+        }
+    }
+
+    /**
+     * Inject each of the {@code args} in place of the template's placeholders,
+     * respectively, following the rules of
+     * {@link AnyStrings#format(String, Object...)}, and append the result to
+     * {@code out}.
+     * 
+     * @param out the {@link Appendable} that receives the formatted string
+     * @param args the values to inject in the template placeholders,
+     *            respectively
+     * @return {@code out} for convenience
+     */
+    public <T extends Appendable> T formatTo(T out, Object... args) {
+        try {
+            if(args == null || args.length == 0) {
+                out.append(template);
+                return out;
+            }
+            int placeholders = literals.length - 1;
+            out.append(literals[0]);
+            for (int i = 0; i < placeholders; ++i) {
+                if(i < args.length) {
+                    out.append(String.valueOf(args[i]));
+                }
+                else {
+                    // There are more placeholders than args, so the extra
+                    // placeholders are retained
+                    out.append(PLACEHOLDER_BEGIN).append(PLACEHOLDER_END);
+                }
+                out.append(literals[i + 1]);
+            }
+            if(placeholders < args.length) {
+                // If there are remaining args that weren't represented in the
+                // template with variable markers, simply append them as a list
+                if(!template.isEmpty()) {
+                    out.append(": ");
+                }
+                appendExtraArgs(out, args, placeholders);
+            }
+            return out;
+        }
+        catch (IOException e) {
+            throw CheckedExceptions.throwAsRuntimeException(e);
+        }
+    }
+
+    /**
+     * Return the number of placeholders in the template.
+     * 
+     * @return the number of placeholders
+     */
+    public int placeholders() {
+        return literals.length - 1;
+    }
+
+    /**
+     * Return the template that was compiled.
+     * 
+     * @return the template
+     */
+    public String template() {
+        return template;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+}
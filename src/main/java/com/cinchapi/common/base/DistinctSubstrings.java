@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The distinct substrings of a {@link String} that neither start nor end
+ * with whitespace, which are the same as the distinct, non-empty results of
+ * {@link String#trim() trimming} every substring, without materializing
+ * them.
+ * <p>
+ * A string of length {@code n} has O(n<sup>2</sup>) substrings, so
+ * collecting them (as {@link AnyStrings#getAllSubStrings(String)} does) takes
+ * quadratic time and memory. Instead, the string is indexed by a suffix
+ * automaton, which has at most {@code 2n} states and groups the substrings
+ * that always occur at the same positions. The substrings can then be
+ * {@link #count() counted} in time that is linear in the length of the string
+ * and {@link #contains(CharSequence) looked up} in time that is linear in the
+ * length of the substring. Each substring is only created when it is reached
+ * by an {@link #iterator() iterator} or {@link #stream() stream}, in no
+ * particular order.
+ * </p>
+ * <p>
+ * The substrings can be limited to a {@link #withLengthBetween(int, int)
+ * range of lengths}, which applies to all of the queries. An instance is
+ * immutable and thread-safe.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+public final class DistinctSubstrings implements Iterable<String> {
+
+    /**
+     * Return the {@link DistinctSubstrings} of {@code string}.
+     * 
+     * @param string the string to divide into substrings
+     * @return the {@link DistinctSubstrings}
+     */
+    public static DistinctSubstrings of(String string) {
+        return new DistinctSubstrings(new Automaton(string), 1,
+                Integer.MAX_VALUE);
+    }
+
+    /**
+     * Return {@code true} if {@code c} is trimmed by {@link String#trim()}.
+     * 
+     * @param c the char
+     * @return {@code true} if {@code c} is whitespace
+     */
+    private static boolean isWhitespace(char c) {
+        return c <= ' ';
+    }
+
+    /**
+     * The suffix automaton of the string.
+     */
+    private final Automaton automaton;
+
+    /**
+     * The length of the longest substring to include.
+     */
+    private final int maxLength;
+
+    /**
+     * The length of the shortest substring to include.
+     */
+    private final int minLength;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param automaton the suffix automaton of the string
+     * @param minLength the length of the shortest substring to include
+     * @param maxLength the length of the longest substring to include
+     */
+    private DistinctSubstrings(Automaton automaton, int minLength,
+            int maxLength) {
+        this.automaton = automaton;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Return {@code true} if {@code sequence} is one of the substrings.
+     * 
+     * @param sequence the {@link CharSequence} to look up
+     * @return {@code true} if {@code sequence} is a substring that is within
+     *         the length bounds and neither starts nor ends with whitespace
+     */
+    public boolean contains(CharSequence sequence) {
+        int length = sequence.length();
+        if(length < minLength || length > maxLength
+                || isWhitespace(sequence.charAt(0))
+                || isWhitespace(sequence.charAt(length - 1))) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0; i < length && state >= 0; ++i) {
+            state = automaton.transition(state, sequence.charAt(i));
+        }
+        return state >= 0;
+    }
+
+    /**
+     * Return the number of substrings.
+     * 
+     * @return the count
+     */
+    public long count() {
+        long count = 0;
+        for (int state = 1; state < automaton.size; ++state) {
+            int end = automaton.ends[state];
+            if(!isWhitespace(automaton.string.charAt(end))) {
+                int min = Math.max(minLength,
+                        automaton.lengths[automaton.links[state]] + 1);
+                int max = Math.min(maxLength, automaton.lengths[state]);
+                if(min <= max) {
+                    // The substrings of the state start at each index from
+                    // end - max + 1 to end - min + 1
+                    count += automaton.nonWhitespace[end - min + 2]
+                            - automaton.nonWhitespace[end - max + 1];
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new SubstringIterator();
+    }
+
+    @Override
+    public Spliterator<String> spliterator() {
+        return Spliterators.spliterator(iterator(), count(),
+                Spliterator.DISTINCT | Spliterator.IMMUTABLE
+                        | Spliterator.NONNULL);
+    }
+
+    /**
+     * Return a sequential {@link Stream} of the substrings.
+     * 
+     * @return the {@link Stream} of substrings
+     */
+    public Stream<String> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Return a view of these {@link DistinctSubstrings} that only includes
+     * the substrings whose length is between {@code minLength} and
+     * {@code maxLength}, inclusive.
+     * 
+     * @param minLength the length of the shortest substring to include
+     * @param maxLength the length of the longest substring to include
+     * @return the {@link DistinctSubstrings} within the bounds
+     */
+    public DistinctSubstrings withLengthBetween(int minLength, int maxLength) {
+        Verify.thatArgument(minLength <= maxLength,
+                "The min length cannot be greater than the max length");
+        return new DistinctSubstrings(automaton, Math.max(minLength, 1),
+                maxLength);
+    }
+
+    /**
+     * The suffix automaton of a string, where each state is the set of
+     * substrings that end at the same positions.
+     * 
+     * @author Jeff Nelson
+     */
+    private static final class Automaton {
+
+        /**
+         * The value that indicates the absence of a state or transition.
+         */
+        private static final int NONE = -1;
+
+        /**
+         * The char of each transition.
+         */
+        private char[] edgeChars;
+
+        /**
+         * The next transition from the same state, or {@link #NONE}.
+         */
+        private int[] edgeNexts;
+
+        /**
+         * The state to which each transition leads.
+         */
+        private int[] edgeTargets;
+
+        /**
+         * The number of transitions.
+         */
+        private int edges = 0;
+
+        /**
+         * The index of the last char of the first occurrence of the
+         * substrings of each state.
+         */
+        private final int[] ends;
+
+        /**
+         * The first transition from each state, or {@link #NONE}.
+         */
+        private final int[] firstEdges;
+
+        /**
+         * The length of the longest substring of each state.
+         */
+        private final int[] lengths;
+
+        /**
+         * The suffix link of each state, which is the state of the longest
+         * suffix of its substrings that occurs at more positions.
+         */
+        private final int[] links;
+
+        /**
+         * The number of chars before each index that aren't whitespace.
+         */
+        private final int[] nonWhitespace;
+
+        /**
+         * The number of states.
+         */
+        private int size = 1;
+
+        /**
+         * The string that was indexed.
+         */
+        private final String string;
+
+        /**
+         * Construct a new instance.
+         * 
+         * @param string the string to index
+         */
+        Automaton(String string) {
+            int length = string.length();
+            int capacity = Math.max(2 * length, 2);
+            this.string = string;
+            this.ends = new int[capacity];
+            this.firstEdges = new int[capacity];
+            this.lengths = new int[capacity];
+            this.links = new int[capacity];
+            this.edgeChars = new char[capacity];
+            this.edgeNexts = new int[capacity];
+            this.edgeTargets = new int[capacity];
+            this.nonWhitespace = new int[length + 1];
+            Arrays.fill(firstEdges, NONE);
+            links[0] = NONE;
+            int last = 0;
+            for (int i = 0; i < length; ++i) {
+                char c = string.charAt(i);
+                nonWhitespace[i + 1] = nonWhitespace[i]
+                        + (isWhitespace(c) ? 0 : 1);
+                int current = size++;
+                lengths[current] = lengths[last] + 1;
+                ends[current] = i;
+                int state = last;
+                while (state != NONE && transition(state, c) == NONE) {
+                    addTransition(state, c, current);
+                    state = links[state];
+                }
+                if(state == NONE) {
+                    links[current] = 0;
+                }
+                else {
+                    int next = transition(state, c);
+                    if(lengths[state] + 1 == lengths[next]) {
+                        links[current] = next;
+                    }
+                    else {
+                        int clone = size++;
+                        lengths[clone] = lengths[state] + 1;
+                        ends[clone] = ends[next];
+                        links[clone] = links[next];
+                        for (int e = firstEdges[next]; e != NONE;
+                                e = edgeNexts[e]) {
+                            addTransition(clone, edgeChars[e],
+                                    edgeTargets[e]);
+                        }
+                        while (state != NONE && redirect(state, c, next,
+                                clone)) {
+                            state = links[state];
+                        }
+                        links[next] = clone;
+                        links[current] = clone;
+                    }
+                }
+                last = current;
+            }
+        }
+
+        /**
+         * Return the state to which the transition on {@code c} from
+         * {@code state} leads, or {@link #NONE}.
+         * 
+         * @param state the state
+         * @param c the char
+         * @return the next state
+         */
+        int transition(int state, char c) {
+            for (int e = firstEdges[state]; e != NONE; e = edgeNexts[e]) {
+                if(edgeChars[e] == c) {
+                    return edgeTargets[e];
+                }
+            }
+            return NONE;
+        }
+
+        /**
+         * Add a transition on {@code c} from {@code state} to {@code target}.
+         * 
+         * @param state the state
+         * @param c the char
+         * @param target the next state
+         */
+        private void addTransition(int state, char c, int target) {
+            if(edges == edgeChars.length) {
+                int capacity = edges * 2;
+                edgeChars = Arrays.copyOf(edgeChars, capacity);
+                edgeNexts = Arrays.copyOf(edgeNexts, capacity);
+                edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+            }
+            edgeChars[edges] = c;
+            edgeTargets[edges] = target;
+            edgeNexts[edges] = firstEdges[state];
+            firstEdges[state] = edges++;
+        }
+
+        /**
+         * If the transition on {@code c} from {@code state} leads to
+         * {@code from}, make it lead to {@code to} instead.
+         * 
+         * @param state the state
+         * @param c the char
+         * @param from the current target of the transition
+         * @param to the new target of the transition
+         * @return {@code true} if the transition was redirected
+         */
+        private boolean redirect(int state, char c, int from, int to) {
+            for (int e = firstEdges[state]; e != NONE; e = edgeNexts[e]) {
+                if(edgeChars[e] == c) {
+                    if(edgeTargets[e] == from) {
+                        edgeTargets[e] = to;
+                        return true;
+                    }
+                    else {
+                        return false;
+                    }
+                }
+            }
+            return false;
+        }
+
+    }
+
+    /**
+     * An {@link Iterator} that creates each substring as it is reached by
+     * visiting each state of the {@link #automaton} and each length of the
+     * substrings that it groups.
+     * 
+     * @author Jeff Nelson
+     */
+    private final class SubstringIterator extends ReadOnlyIterator<String> {
+
+        /**
+         * The length of the next substring to consider in the current
+         * {@link #state}.
+         */
+        private int length = 0;
+
+        /**
+         * The length of the longest substring to consider in the current
+         * {@link #state}.
+         */
+        private int max = -1;
+
+        /**
+         * The start index of the substring that will be returned from
+         * {@link #next()}, or {@link Automaton#NONE} if it hasn't been found.
+         */
+        private int start = Automaton.NONE;
+
+        /**
+         * The current state.
+         */
+        private int state = 0;
+
+        @Override
+        public boolean hasNext() {
+            while (start == Automaton.NONE) {
+                if(length > max) {
+                    if(++state >= automaton.size) {
+                        return false;
+                    }
+                    else if(isWhitespace(automaton.string
+                            .charAt(automaton.ends[state]))) {
+                        continue;
+                    }
+                    length = Math.max(minLength,
+                            automaton.lengths[automaton.links[state]] + 1);
+                    max = Math.min(maxLength, automaton.lengths[state]);
+                }
+                else {
+                    int candidate = automaton.ends[state] - length + 1;
+                    ++length;
+                    if(!isWhitespace(automaton.string.charAt(candidate))) {
+                        start = candidate;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String next() {
+            if(hasNext()) {
+                int end = automaton.ends[state] + 1;
+                String substring = automaton.string.substring(start, end);
+                start = Automaton.NONE;
+                return substring;
+            }
+            else {
+                throw new NoSuchElementException();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * A set of needles that have been compiled so that all of them can be
+ * searched for in a {@link CharSequence} in a single pass, no matter how many
+ * there are.
+ * <p>
+ * The needles are compiled into an Aho-Corasick automaton whose transitions
+ * are stored in a single {@code int[]} table with a row for each state and a
+ * column for each distinct char that appears in any needle, so each char of
+ * the haystack costs one table lookup. A char that doesn't appear in any
+ * needle sends the automaton back to its initial state.
+ * </p>
+ * <p>
+ * The haystack can be checked for {@link #occursIn(CharSequence) any match},
+ * searched for the {@link #findFirst(CharSequence) first match} or searched
+ * for {@link #findAll(CharSequence) all matches}, which may overlap. Each
+ * {@link Match} identifies its needle by the index at which it was given; if
+ * the same needle is given more than once, it is only reported for the first
+ * index.
+ * </p>
+ * <p>
+ * An instance is immutable and thread-safe.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+public final class MultiSubstringSearcher {
+
+    /**
+     * The number of chars that are mapped to their column in the transition
+     * table by a direct lookup instead of a binary search.
+     */
+    private static final int DIRECT_CHARS = 128;
+
+    /**
+     * The value that indicates the absence of a state or needle.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Return a {@link MultiSubstringSearcher} for the {@code needles}.
+     * 
+     * @param needles the substrings for which to search
+     * @return the {@link MultiSubstringSearcher}
+     * @throws IllegalArgumentException if there are no needles or any of them
+     *             is empty
+     */
+    public static MultiSubstringSearcher compile(
+            Collection<? extends CharSequence> needles) {
+        return new MultiSubstringSearcher(
+                needles.toArray(new CharSequence[needles.size()]));
+    }
+
+    /**
+     * Return a {@link MultiSubstringSearcher} for the {@code needles}.
+     * 
+     * @param needles the substrings for which to search
+     * @return the {@link MultiSubstringSearcher}
+     * @throws IllegalArgumentException if there are no needles or any of them
+     *             is empty
+     */
+    public static MultiSubstringSearcher compile(CharSequence... needles) {
+        return new MultiSubstringSearcher(needles.clone());
+    }
+
+    /**
+     * The distinct chars that appear in any needle, in ascending order; the
+     * index of each char is its column in the {@link #transitions} table.
+     */
+    private final char[] alphabet;
+
+    /**
+     * The column of each char below {@link #DIRECT_CHARS}, or {@link #NONE}.
+     */
+    private final int[] directColumns;
+
+    /**
+     * For each state, the nearest state along its chain of failure links at
+     * which a needle ends, or {@link #NONE}.
+     */
+    private final int[] dictionaryLinks;
+
+    /**
+     * The needle that ends at each state, or {@link #NONE}.
+     */
+    private final int[] endings;
+
+    /**
+     * The needles.
+     */
+    private final String[] needles;
+
+    /**
+     * The state that follows each state and column, where the row for state
+     * {@code s} starts at {@code s * alphabet.length}.
+     */
+    private final int[] transitions;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param needles the substrings for which to search
+     */
+    private MultiSubstringSearcher(CharSequence[] needles) {
+        Verify.thatArgument(needles.length > 0,
+                "There must be at least one needle");
+        this.needles = new String[needles.length];
+        int states = 1;
+        StringBuilder chars = new StringBuilder();
+        for (int i = 0; i < needles.length; ++i) {
+            String needle = needles[i].toString();
+            Verify.thatArgument(!needle.isEmpty(), "A needle cannot be empty");
+            this.needles[i] = needle;
+            states += needle.length();
+            chars.append(needle);
+        }
+
+        // Map each distinct char to a column
+        char[] sorted = chars.toString().toCharArray();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; ++i) {
+            if(i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        this.alphabet = Arrays.copyOf(sorted, distinct);
+        this.directColumns = new int[DIRECT_CHARS];
+        Arrays.fill(directColumns, NONE);
+        for (int i = 0; i < alphabet.length && alphabet[i] < DIRECT_CHARS;
+                ++i) {
+            directColumns[alphabet[i]] = i;
+        }
+
+        // Build the trie of the needles, where a transition to the initial
+        // state means there is no child
+        int width = alphabet.length;
+        int[] transitions = new int[states * width];
+        int[] endings = new int[states];
+        Arrays.fill(endings, NONE);
+        int count = 1;
+        for (int i = 0; i < this.needles.length; ++i) {
+            String needle = this.needles[i];
+            int state = 0;
+            for (int j = 0; j < needle.length(); ++j) {
+                int index = state * width + column(needle.charAt(j));
+                if(transitions[index] == 0) {
+                    transitions[index] = count++;
+                }
+                state = transitions[index];
+            }
+            if(endings[state] == NONE) {
+                endings[state] = i;
+            }
+        }
+
+        // Visit the states in breadth-first order to compute the failure link
+        // of each one and replace each missing child with the transition
+        // from the failure link, which has already been visited because it
+        // is shallower
+        int[] failures = new int[count];
+        int[] dictionaryLinks = new int[count];
+        dictionaryLinks[0] = NONE;
+        int[] queue = new int[count];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < width; ++c) {
+            int child = transitions[c];
+            if(child != 0) {
+                dictionaryLinks[child] = NONE;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            int row = state * width;
+            int failureRow = failures[state] * width;
+            for (int c = 0; c < width; ++c) {
+                int child = transitions[row + c];
+                if(child != 0) {
+                    int failure = transitions[failureRow + c];
+                    failures[child] = failure;
+                    dictionaryLinks[child] = endings[failure] != NONE ? failure
+                            : dictionaryLinks[failure];
+                    queue[tail++] = child;
+                }
+                else {
+                    transitions[row + c] = transitions[failureRow + c];
+                }
+            }
+        }
+        this.transitions = Arrays.copyOf(transitions, count * width);
+        this.endings = Arrays.copyOf(endings, count);
+        this.dictionaryLinks = dictionaryLinks;
+    }
+
+    /**
+     * Return all of the occurrences of any needle in the {@code haystack},
+     * ordered by the index at which they end and then from the longest to the
+     * shortest. Occurrences may overlap.
+     * 
+     * @param haystack the {@link CharSequence} in which to search
+     * @return the {@link Match Matches}
+     */
+    public List<Match> findAll(CharSequence haystack) {
+        List<Match> matches = new ArrayList<>();
+        int state = 0;
+        int length = haystack.length();
+        for (int i = 0; i < length; ++i) {
+            state = next(state, haystack.charAt(i));
+            int ending = endings[state] != NONE ? state
+                    : dictionaryLinks[state];
+            while (ending != NONE) {
+                matches.add(match(endings[ending], i + 1));
+                ending = dictionaryLinks[ending];
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Return the occurrence of any needle in the {@code haystack} that ends
+     * first, or {@code null} if none of the needles occur. If more than one
+     * needle ends at the same index, the longest one is returned.
+     * 
+     * @param haystack the {@link CharSequence} in which to search
+     * @return the first {@link Match} or {@code null}
+     */
+    @Nullable
+    public Match findFirst(CharSequence haystack) {
+        int state = 0;
+        int length = haystack.length();
+        for (int i = 0; i < length; ++i) {
+            state = next(state, haystack.charAt(i));
+            int ending = endings[state] != NONE ? state
+                    : dictionaryLinks[state];
+            if(ending != NONE) {
+                return match(endings[ending], i + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the needle at {@code index}.
+     * 
+     * @param index the index of the needle
+     * @return the needle
+     */
+    public String needle(int index) {
+        return needles[index];
+    }
+
+    /**
+     * Return {@code true} if any of the needles occur in the
+     * {@code haystack}.
+     * 
+     * @param haystack the {@link CharSequence} in which to search
+     * @return {@code true} if any needle is a substring of the
+     *         {@code haystack}
+     */
+    public boolean occursIn(CharSequence haystack) {
+        int state = 0;
+        int length = haystack.length();
+        for (int i = 0; i < length; ++i) {
+            state = next(state, haystack.charAt(i));
+            if(endings[state] != NONE || dictionaryLinks[state] != NONE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the number of needles.
+     * 
+     * @return the number of needles
+     */
+    public int size() {
+        return needles.length;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(needles);
+    }
+
+    /**
+     * Return the column in the {@link #transitions} table for {@code c}, or
+     * {@link #NONE} if it doesn't appear in any needle.
+     * 
+     * @param c the char
+     * @return the column
+     */
+    private int column(char c) {
+        if(c < DIRECT_CHARS) {
+            return directColumns[c];
+        }
+        else {
+            int column = Arrays.binarySearch(alphabet, c);
+            return column >= 0 ? column : NONE;
+        }
+    }
+
+    /**
+     * Return a {@link Match} for the needle at {@code index} that ends at
+     * {@code end}.
+     * 
+     * @param index the index of the needle
+     * @param end the index after the last char of the match
+     * @return the {@link Match}
+     */
+    private Match match(int index, int end) {
+        return new Match(index, end - needles[index].length(), end);
+    }
+
+    /**
+     * Return the state that follows {@code state} after {@code c} is read.
+     * 
+     * @param state the current state
+     * @param c the char that is read
+     * @return the next state
+     */
+    private int next(int state, char c) {
+        int column = column(c);
+        return column != NONE ? transitions[state * alphabet.length + column]
+                : 0;
+    }
+
+    /**
+     * An occurrence of a needle in a haystack.
+     * 
+     * @author Jeff Nelson
+     */
+    public static final class Match {
+
+        /**
+         * The index after the last char of the match.
+         */
+        private final int end;
+
+        /**
+         * The index of the needle that was matched.
+         */
+        private final int needle;
+
+        /**
+         * The index of the first char of the match.
+         */
+        private final int start;
+
+        /**
+         * Construct a new instance.
+         * 
+         * @param needle the index of the needle that was matched
+         * @param start the index of the first char of the match
+         * @param end the index after the last char of the match
+         */
+        private Match(int needle, int start, int end) {
+            this.needle = needle;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Return the index in the haystack after the last char of the match.
+         * 
+         * @return the end index
+         */
+        public int end() {
+            return end;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(obj instanceof Match) {
+                Match other = (Match) obj;
+                return needle == other.needle && start == other.start
+                        && end == other.end;
+            }
+            else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * needle + start) * 31 + end;
+        }
+
+        /**
+         * Return the index of the needle that was matched, in the order that
+         * the needles were given when the {@link MultiSubstringSearcher} was
+         * compiled.
+         * 
+         * @return the index of the needle
+         */
+        public int needle() {
+            return needle;
+        }
+
+        /**
+         * Return the index in the haystack of the first char of the match.
+         * 
+         * @return the start index
+         */
+        public int start() {
+            return start;
+        }
+
+        @Override
+        public String toString() {
+            return needle + "@[" + start + ", " + end + ")";
+        }
+
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link StringSplitter} that is aware of any number of "wrapper" pairs
+ * (e.g. <code>{}</code>, {@code []} and {@code ()}) that may be nested within
+ * one another.
+ * <p>
+ * A delimiter is only split upon if every wrapper that has been opened has
+ * been closed. A wrapper end char that doesn't close the wrapper that was
+ * opened most recently is ignored, so <code>{a, [b}, c]}, d</code> is split
+ * into <code>{a, [b}, c]}</code> and {@code d}. Unlike the
+ * {@link QuoteAndWrapperAwareStringSplitter}, quotes have no special meaning,
+ * so a wrapper char between quotes is still counted.
+ * </p>
+ * <p>
+ * The wrappers are given as a {@link String} of pairs, where each start char
+ * is followed by its end char (i.e. <code>"{}[]()"</code>).
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+public class MultiWrapperAwareStringSplitter extends StringSplitter {
+
+    /**
+     * The wrapper chars, which are returned from
+     * {@link #updateIsReadyToSplitChars()}.
+     */
+    private final char[] splitChars;
+
+    /**
+     * The wrappers that are open.
+     */
+    private final WrapperStack wrappers;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param wrappers the wrapper pairs, where each start char is followed by
+     *            its end char
+     * @param buffer the {@link ByteBuffer} that contains the UTF-8 bytes to
+     *            split
+     * @param delimiter the delimiter upon which to split; must be an ASCII
+     *            character
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public MultiWrapperAwareStringSplitter(String wrappers, ByteBuffer buffer,
+            char delimiter, SplitOption... options) {
+        super(buffer, delimiter, options);
+        this.splitChars = WrapperStack.checkWrappers(wrappers);
+        this.wrappers = new WrapperStack(splitChars);
+        for (char c : splitChars) {
+            Verify.thatArgument(c < 0x80,
+                    "The wrappers for a ByteBuffer must be ASCII characters");
+        }
+        reset();
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param wrappers the wrapper pairs, where each start char is followed by
+     *            its end char
+     * @param sequence the {@link CharSequence} to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public MultiWrapperAwareStringSplitter(String wrappers,
+            CharSequence sequence, char delimiter, SplitOption... options) {
+        super(sequence, delimiter, options);
+        this.splitChars = WrapperStack.checkWrappers(wrappers);
+        this.wrappers = new WrapperStack(splitChars);
+        reset();
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param wrappers the wrapper pairs, where each start char is followed by
+     *            its end char
+     * @param reader the {@link Reader} to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public MultiWrapperAwareStringSplitter(String wrappers, Reader reader,
+            char delimiter, SplitOption... options) {
+        super(reader, delimiter, options);
+        this.splitChars = WrapperStack.checkWrappers(wrappers);
+        this.wrappers = new WrapperStack(splitChars);
+        reset();
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param spec the {@link SplitterSpec}
+     */
+    MultiWrapperAwareStringSplitter(SplitterSpec spec) {
+        super(spec);
+        this.splitChars = spec.wrappers;
+        this.wrappers = new WrapperStack(splitChars);
+        reset();
+    }
+
+    @Override
+    protected boolean isReadyToSplit() {
+        // The wrappers aren't assigned while the super constructor runs
+        return wrappers == null || wrappers.isEmpty();
+    }
+
+    @Override
+    protected void resetIsReadyToSplit() {
+        if(wrappers != null) {
+            wrappers.clear();
+        }
+    }
+
+    @Override
+    protected void updateIsReadyToSplit(char c) {
+        if(wrappers != null) {
+            wrappers.update(c);
+        }
+    }
+
+    @Override
+    protected char[] updateIsReadyToSplitChars() {
+        // The split chars aren't assigned while the super constructor runs
+        return splitChars != null ? splitChars
+                : super.updateIsReadyToSplitChars();
+    }
+
+}
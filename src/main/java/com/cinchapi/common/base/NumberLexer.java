@@ -0,0 +1,582 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+/**
+ * A reusable scanner that classifies a {@link CharSequence} according to the
+ * rules of {@link AnyStrings#tryParseNumber(String)} and computes its value
+ * without creating an intermediate {@link String} in the common cases.
+ * <p>
+ * Call {@link #lex(CharSequence)} to classify a sequence. If it is an
+ * {@link #INTEGER} or a {@link #LONG}, the value is available from
+ * {@link #integer()}. If it is a {@link #DECIMAL} or a {@link #DOUBLE}, call
+ * {@link #toDouble(CharSequence)} to parse its value or, for a
+ * {@link #DECIMAL}, {@link #toDecimal(CharSequence)} to parse it as the
+ * {@link Float} or {@link Double} that
+ * {@link AnyStrings#tryParseNumber(String)} returns.
+ * </p>
+ * <p>
+ * An instance is not thread-safe.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+final class NumberLexer {
+
+    /**
+     * The result of {@link #lex(CharSequence)} if the sequence is not a
+     * number, in which case {@link AnyStrings#tryParseNumber(String)} returns
+     * {@code null}.
+     */
+    static final int NOT_A_NUMBER = 0;
+
+    /**
+     * The result of {@link #lex(CharSequence)} if the sequence is a whole
+     * number that fits in an {@code int}.
+     */
+    static final int INTEGER = 1;
+
+    /**
+     * The result of {@link #lex(CharSequence)} if the sequence is a whole
+     * number that only fits in a {@code long}.
+     */
+    static final int LONG = 2;
+
+    /**
+     * The result of {@link #lex(CharSequence)} if the sequence has a decimal
+     * point or is in scientific notation, in which case
+     * {@link AnyStrings#tryParseNumber(String)} returns a {@link Float} or a
+     * {@link Double}.
+     */
+    static final int DECIMAL = 3;
+
+    /**
+     * The result of {@link #lex(CharSequence)} if the sequence ends with the
+     * {@code D} suffix that coerces it to a {@link Double}.
+     */
+    static final int DOUBLE = 4;
+
+    /**
+     * The result of {@link #lex(CharSequence)} if the sequence looks like a
+     * number but cannot be parsed as one, in which case
+     * {@link AnyStrings#tryParseNumber(String)} throws a
+     * {@link NumberFormatException}.
+     */
+    static final int MALFORMED = 5;
+
+    /**
+     * The exactly representable powers of ten that are used to compute the
+     * value of a short decimal with a single, correctly rounded operation.
+     */
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4,
+            1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+            1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    /**
+     * The largest number of significant digits that can be accumulated in a
+     * {@code long} and exactly converted to a {@code double}. Any decimal with
+     * this many significant digits survives a round trip through a
+     * {@code double}.
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    /**
+     * The largest number of significant digits for which any decimal survives
+     * a round trip through a {@code float}.
+     */
+    private static final int MAX_FLOAT_DIGITS = 6;
+
+    /**
+     * The largest number of significant digits in the shortest decimal that
+     * uniquely identifies a {@code float}.
+     */
+    private static final int MAX_SHORTEST_FLOAT_DIGITS = 9;
+
+    /**
+     * The largest magnitude of a negative decimal exponent of a number whose
+     * value is well within the normal range of a {@code float}.
+     */
+    private static final int MAX_FLOAT_MAGNITUDE = 37;
+
+    /**
+     * The decimal exponent of the smallest number that is formatted in
+     * scientific notation by {@link Float#toString(float)}. Prior to Java 19,
+     * the digits in that notation were not always the shortest, so a number
+     * that large is compared the slow way to get the same result on every
+     * version.
+     */
+    private static final int MIN_SCIENTIFIC_MAGNITUDE = 7;
+
+    /**
+     * The largest magnitude of the decimal exponent of a number whose value is
+     * well within the normal range of a {@code double}.
+     */
+    private static final int MAX_DOUBLE_MAGNITUDE = 300;
+
+    /**
+     * The number of low order bits in the significand of a {@code double} that
+     * don't fit in the significand of a {@code float}.
+     */
+    private static final int FLOAT_ROUNDING_BITS = 29;
+
+    /**
+     * The number of chars at the beginning of the last sequence that was
+     * lexed that make up the number (i.e. excluding a {@code D} suffix).
+     */
+    private int end;
+
+    /**
+     * The power of ten by which the {@link #mantissa} is scaled, from the last
+     * call to {@link #scan(CharSequence)}.
+     */
+    private int exponent;
+
+    /**
+     * The value of the last sequence that was lexed, if it was an
+     * {@link #INTEGER} or a {@link #LONG}.
+     */
+    private long integer;
+
+    /**
+     * The significant digits, without any trailing zeros, from the last call
+     * to {@link #scan(CharSequence)}.
+     */
+    private long mantissa;
+
+    /**
+     * A flag that indicates whether the number from the last call to
+     * {@link #scan(CharSequence)} is negative.
+     */
+    private boolean negative;
+
+    /**
+     * The number of significant digits in the {@link #mantissa}.
+     */
+    private int precision;
+
+    /**
+     * Return the value of the last sequence that was lexed as an
+     * {@link #INTEGER} or a {@link #LONG}.
+     * 
+     * @return the whole number
+     */
+    long integer() {
+        return integer;
+    }
+
+    /**
+     * Classify {@code sequence} according to the rules of
+     * {@link AnyStrings#tryParseNumber(String)}.
+     * 
+     * @param sequence the {@link CharSequence} to classify
+     * @return one of {@link #NOT_A_NUMBER}, {@link #INTEGER}, {@link #LONG},
+     *         {@link #DECIMAL}, {@link #DOUBLE} or {@link #MALFORMED}
+     */
+    int lex(CharSequence sequence) {
+        int size = sequence.length();
+        end = size;
+        if(size == 0) {
+            return NOT_A_NUMBER;
+        }
+        else if(sequence.charAt(0) == '0' && size > 1
+                && sequence.charAt(1) != '.') {
+            // Do not parse a number with a leading 0 that is not followed by
+            // a decimal (i.e. 007)
+            return NOT_A_NUMBER;
+        }
+        boolean decimal = false;
+        boolean scientific = false;
+        boolean negative = false;
+        boolean overflow = false;
+        boolean ascii = true;
+        // Accumulate the whole number negatively, like Long#parseLong, so
+        // that Long.MIN_VALUE can be represented
+        long accumulator = 0;
+        for (int i = 0; i < size; ++i) {
+            char c = sequence.charAt(i);
+            if(c >= '0' && c <= '9') {
+                if(!overflow) {
+                    long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+                    int digit = c - '0';
+                    if(accumulator < limit / 10
+                            || accumulator * 10 < limit + digit) {
+                        overflow = true;
+                    }
+                    else {
+                        accumulator = accumulator * 10 - digit;
+                    }
+                }
+            }
+            else if(c > 0x7F && Character.isDigit(c)) {
+                // A non-ASCII digit is accepted by the validation in
+                // AnyStrings#tryParseNumber but not by any of the parsers it
+                // delegates to
+                ascii = false;
+            }
+            else if(i == 0 && c == '-') {
+                negative = true;
+            }
+            else if(scientific && (c == '-' || c == '+')) {
+                continue;
+            }
+            else if(c == '.') {
+                if(!decimal && size > 1) {
+                    decimal = true;
+                }
+                else {
+                    // Another decimal suggests this is an IP address
+                    return NOT_A_NUMBER;
+                }
+            }
+            else if(i == size - 1 && c == 'D' && size > 1) {
+                end = i;
+                return ascii ? DOUBLE : MALFORMED;
+            }
+            else if((c == 'E' || c == 'e') && i < size - 1) {
+                if(!scientific) {
+                    scientific = true;
+                }
+                else {
+                    return NOT_A_NUMBER;
+                }
+            }
+            else {
+                return NOT_A_NUMBER;
+            }
+        }
+        if(!ascii) {
+            return MALFORMED;
+        }
+        else if(decimal || scientific) {
+            return DECIMAL;
+        }
+        else if(negative && size == 1) {
+            return NOT_A_NUMBER;
+        }
+        else if(overflow) {
+            return MALFORMED;
+        }
+        else {
+            integer = negative ? accumulator : -accumulator;
+            return integer == (int) integer ? INTEGER : LONG;
+        }
+    }
+
+    /**
+     * Return the value of {@code sequence}, which must be the last sequence
+     * that was {@link #lex(CharSequence) lexed} as a {@link #DECIMAL}, as a
+     * {@link Float} if that doesn't lose any precision or as a {@link Double}
+     * otherwise, just like {@link AnyStrings#tryParseNumber(String)}.
+     * <p>
+     * A {@link Float} is returned if the shortest decimal that identifies the
+     * {@code float} nearest to the number is the same as the one that
+     * identifies the nearest {@code double}. For most numbers, this is
+     * decided from the number of significant digits alone: no more than 6
+     * digits always survive a round trip through a {@code float}, while more
+     * than 9 never do. Otherwise, the decision is made by checking whether a
+     * shorter or closer decimal also rounds to the same {@code float}. Only
+     * if that is inconclusive (i.e. the number has more than 15 significant
+     * digits or a very large or small exponent) is the number parsed and
+     * formatted as both a {@code float} and a {@code double} to compare. That
+     * is also the case for a number of at least ten million that has fewer
+     * than 10 significant digits, because older versions of
+     * {@link Float#toString(float)} don't always format it with the shortest
+     * decimal.
+     * </p>
+     * 
+     * @param sequence the {@link CharSequence} that was lexed
+     * @return the value
+     * @throws NumberFormatException if the sequence is not a valid decimal
+     */
+    Number toDecimal(CharSequence sequence) {
+        if(scan(sequence)) {
+            int magnitude = precision + exponent - 1;
+            if(mantissa == 0) {
+                return negative ? -0.0f : 0.0f;
+            }
+            else if(precision > MAX_SHORTEST_FLOAT_DIGITS
+                    && Math.abs(magnitude) <= MAX_DOUBLE_MAGNITUDE) {
+                // The number is its own shortest decimal as a double, but
+                // it has more digits than any shortest decimal of a float
+                return toDouble(sequence);
+            }
+            else if(Math.abs(exponent) < POWERS_OF_TEN.length - 1
+                    && magnitude >= -MAX_FLOAT_MAGNITUDE
+                    && magnitude < MIN_SCIENTIFIC_MAGNITUDE) {
+                float value = toFloat(mantissa, exponent);
+                if(value != value) {
+                    return parseDecimal(sequence);
+                }
+                else if(precision <= MAX_FLOAT_DIGITS) {
+                    return negative ? -value : value;
+                }
+                else {
+                    switch (isShortestDecimal(value)) {
+                    case 1:
+                        return negative ? -value : value;
+                    case 0:
+                        return toDouble(sequence);
+                    default:
+                        break;
+                    }
+                }
+            }
+        }
+        return parseDecimal(sequence);
+    }
+
+    /**
+     * Return the {@code double} value of {@code sequence}, which must be the
+     * last sequence that was {@link #lex(CharSequence) lexed}.
+     * <p>
+     * If the number has no more than 15 significant digits and a small
+     * exponent, its value is computed directly with a single multiplication
+     * or division, which is correctly rounded because both operands are exact.
+     * Otherwise, the number is parsed by {@link Double#parseDouble(String)}.
+     * </p>
+     * 
+     * @param sequence the {@link CharSequence} that was lexed
+     * @return the value
+     * @throws NumberFormatException if the sequence is not a valid decimal
+     */
+    double toDouble(CharSequence sequence) {
+        if(!scan(sequence)) {
+            return parseDouble(sequence);
+        }
+        double value;
+        if(mantissa == 0) {
+            value = 0.0;
+        }
+        else if(exponent < -22 || exponent > 22) {
+            return parseDouble(sequence);
+        }
+        else {
+            value = toDouble(mantissa, exponent);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Determine whether the decimal from the last call to
+     * {@link #scan(CharSequence)}, which has between 7 and 9 significant
+     * digits and an exponent whose magnitude is less than 22, is the shortest
+     * decimal that identifies the {@code float} {@code value} nearest to it,
+     * and is the closest such decimal if there are several.
+     * 
+     * @param value the nearest {@code float}
+     * @return {@code 1} if it is, {@code 0} if it isn't or {@code -1} if it
+     *         cannot be determined without parsing
+     */
+    private int isShortestDecimal(float value) {
+        // If a decimal with fewer digits rounds to the value, the one that
+        // is just below or above the number does
+        long shorter = mantissa / 10;
+        for (long candidate = shorter; candidate <= shorter + 1; ++candidate) {
+            float rounded = toFloat(candidate, exponent + 1);
+            if(rounded != rounded) {
+                return -1;
+            }
+            else if(rounded == value) {
+                return 0;
+            }
+        }
+        // If another decimal with as many digits rounds to the value, the
+        // number must be closer to it
+        for (long candidate = mantissa - 1; candidate <= mantissa
+                + 1; candidate += 2) {
+            float rounded = toFloat(candidate, exponent);
+            if(rounded != rounded) {
+                return -1;
+            }
+            else if(rounded == value) {
+                double midpoint = toDouble((mantissa + candidate) * 5,
+                        exponent - 1);
+                if(midpoint == value) {
+                    return -1;
+                }
+                else if(candidate < mantissa ? value < midpoint
+                        : value > midpoint) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Parse the number at the beginning of {@code sequence} with
+     * {@link Double#parseDouble(String)}.
+     * 
+     * @param sequence the {@link CharSequence} that was lexed
+     * @return the value
+     */
+    private double parseDouble(CharSequence sequence) {
+        return Double.parseDouble(sequence.subSequence(0, end).toString());
+    }
+
+    /**
+     * Parse the decimal at the beginning of {@code sequence} as both a
+     * {@code float} and a {@code double} and return the {@link Float} if
+     * their shortest decimals are the same or the {@link Double} otherwise.
+     * 
+     * @param sequence the {@link CharSequence} that was lexed
+     * @return the value
+     */
+    private Number parseDecimal(CharSequence sequence) {
+        String string = sequence.subSequence(0, end).toString();
+        double d = Double.parseDouble(string);
+        float f = Float.parseFloat(string);
+        if(String.valueOf(d).equals(String.valueOf(f))) {
+            return f;
+        }
+        else {
+            return d;
+        }
+    }
+
+    /**
+     * Scan the number at the beginning of {@code sequence} into its
+     * {@link #mantissa}, {@link #precision}, {@link #exponent} and sign.
+     * 
+     * @param sequence the {@link CharSequence} that was lexed
+     * @return {@code false} if the number has too many significant digits or
+     *         isn't well-formed, in which case it must be parsed instead
+     */
+    private boolean scan(CharSequence sequence) {
+        int i = 0;
+        negative = false;
+        if(end > 0 && sequence.charAt(0) == '-') {
+            negative = true;
+            ++i;
+        }
+        long mantissa = 0;
+        int precision = 0;
+        int exponent = 0;
+        // The number of zeros since the last significant digit, which are
+        // only accumulated if another significant digit follows
+        int zeros = 0;
+        boolean any = false;
+        boolean point = false;
+        for (; i < end; ++i) {
+            char c = sequence.charAt(i);
+            if(c >= '0' && c <= '9') {
+                any = true;
+                if(c == '0') {
+                    if(mantissa != 0) {
+                        ++zeros;
+                    }
+                }
+                else {
+                    precision += zeros + 1;
+                    if(precision > MAX_EXACT_DIGITS) {
+                        return false;
+                    }
+                    for (; zeros >= 0; --zeros) {
+                        mantissa *= 10;
+                    }
+                    mantissa += c - '0';
+                    zeros = 0;
+                }
+                if(point) {
+                    --exponent;
+                }
+            }
+            else if(c == '.' && !point) {
+                point = true;
+            }
+            else {
+                break;
+            }
+        }
+        if(!any) {
+            return false;
+        }
+        exponent += zeros;
+        if(i < end) {
+            char c = sequence.charAt(i++);
+            if(c != 'e' && c != 'E' || i == end) {
+                return false;
+            }
+            boolean negativeExponent = false;
+            c = sequence.charAt(i);
+            if(c == '-' || c == '+') {
+                negativeExponent = c == '-';
+                ++i;
+            }
+            if(i == end) {
+                return false;
+            }
+            int magnitude = 0;
+            for (; i < end; ++i) {
+                c = sequence.charAt(i);
+                if(c >= '0' && c <= '9') {
+                    magnitude = Math.min(magnitude * 10 + (c - '0'), 1000);
+                }
+                else {
+                    return false;
+                }
+            }
+            exponent += negativeExponent ? -magnitude : magnitude;
+        }
+        this.mantissa = mantissa;
+        this.precision = precision;
+        this.exponent = exponent;
+        return true;
+    }
+
+    /**
+     * Return the {@code double} nearest to {@code mantissa * 10^exponent},
+     * which is correctly rounded because the {@code mantissa} has no more
+     * than 15 digits and the magnitude of the {@code exponent} is no more than
+     * 22.
+     * 
+     * @param mantissa
+     * @param exponent
+     * @return the value
+     */
+    private static double toDouble(long mantissa, int exponent) {
+        return exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent]
+                : mantissa * POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * Return the {@code float} nearest to {@code mantissa * 10^exponent},
+     * which must be within the normal range of a {@code float}, by narrowing
+     * the nearest {@code double}.
+     * <p>
+     * Narrowing can only round differently than a direct conversion if the
+     * {@code double} is exactly halfway between two {@code floats}, in which
+     * case {@link Float#NaN} is returned because the nearest {@code float}
+     * cannot be determined.
+     * </p>
+     * 
+     * @param mantissa
+     * @param exponent
+     * @return the value or {@link Float#NaN}
+     */
+    private static float toFloat(long mantissa, int exponent) {
+        double value = toDouble(mantissa, exponent);
+        long bits = Double.doubleToRawLongBits(value);
+        long mask = (1L << FLOAT_ROUNDING_BITS) - 1;
+        if((bits & mask) == 1L << (FLOAT_ROUNDING_BITS - 1)) {
+            return Float.NaN;
+        }
+        else {
+            return (float) value;
+        }
+    }
+
+}
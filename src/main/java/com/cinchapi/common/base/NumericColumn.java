@@ -0,0 +1,404 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A column of numbers that were parsed in a batch from their string forms
+ * into a primitive array.
+ * <p>
+ * Each cell is parsed according to the rules of
+ * {@link AnyStrings#tryParseNumber(String)}, but the values are stored in a
+ * single {@code int[]}, {@code long[]} or {@code double[]} instead of being
+ * boxed one by one. The column starts out as an {@link Type#INT INT} column
+ * and is widened, at most once to each wider {@link Type}, as soon as a cell
+ * needs it, so the {@link #type()} of the column is the narrowest one that
+ * can hold all of its values. A cell that isn't a number (or appears to be a
+ * number but can't be parsed as one) doesn't cause an error; it is marked as
+ * invalid in the column's validity bitmap and has a value of {@code 0}.
+ * </p>
+ * <p>
+ * A {@link Type#DOUBLE DOUBLE} column holds every value as a {@code double},
+ * so a whole number that is greater than 2<sup>53</sup> in magnitude is
+ * rounded to the nearest {@code double} if it is in the same column as a
+ * decimal (i.e. {@code 9007199254740993} becomes {@code 9007199254740992}).
+ * Use {@link AnyStrings#tryParseNumber(String)} to parse each cell if such
+ * values must be kept exact.
+ * </p>
+ * <p>
+ * <h2>Usage</h2>
+ * 
+ * <pre>
+ * NumericColumn column = NumericColumn.parse(cells);
+ * if(column.type() == NumericColumn.Type.INT) {
+ *     int[] values = column.ints();
+ *     for (int i = 0; i &lt; values.length; ++i) {
+ *         if(column.isValid(i)) {
+ *             ...
+ *         }
+ *     }
+ * }
+ * </pre>
+ * 
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+public final class NumericColumn {
+
+    /**
+     * Return a {@link NumericColumn} that contains the values of the
+     * {@code cells}. A {@code null} cell is invalid.
+     * 
+     * @param cells the string forms of the numbers
+     * @return the {@link NumericColumn}
+     */
+    public static NumericColumn parse(CharSequence... cells) {
+        NumericColumn column = new NumericColumn(cells.length);
+        for (CharSequence cell : cells) {
+            column.add(cell);
+        }
+        return column;
+    }
+
+    /**
+     * Return a {@link NumericColumn} that contains the values of the
+     * {@code cells}. A {@code null} cell is invalid.
+     * 
+     * @param cells the string forms of the numbers
+     * @return the {@link NumericColumn}
+     */
+    public static NumericColumn parse(List<? extends CharSequence> cells) {
+        NumericColumn column = new NumericColumn(cells.size());
+        for (CharSequence cell : cells) {
+            column.add(cell);
+        }
+        return column;
+    }
+
+    /**
+     * Return a {@link NumericColumn} that contains the values of all the
+     * remaining tokens from the {@code splitter}. Each token is parsed in
+     * place, so no {@link String} is created for it.
+     * 
+     * @param splitter the {@link StringSplitter} whose tokens to parse
+     * @return the {@link NumericColumn}
+     */
+    public static NumericColumn parse(StringSplitter splitter) {
+        NumericColumn column = new NumericColumn(16);
+        while (splitter.hasNext()) {
+            column.add(splitter.nextToken());
+        }
+        return column;
+    }
+
+    /**
+     * The values if the column is {@link Type#DOUBLE}.
+     */
+    private double[] doubles = null;
+
+    /**
+     * The values if the column is {@link Type#INT}.
+     */
+    private int[] ints;
+
+    /**
+     * The {@link NumberLexer} that parses each cell.
+     */
+    private final NumberLexer lexer = new NumberLexer();
+
+    /**
+     * The values if the column is {@link Type#LONG}.
+     */
+    private long[] longs = null;
+
+    /**
+     * The number of cells.
+     */
+    private int size = 0;
+
+    /**
+     * The narrowest {@link Type} that can hold all of the values.
+     */
+    private Type type = Type.INT;
+
+    /**
+     * The validity bitmap, where the bit for each cell that was parsed is
+     * set.
+     */
+    private final BitSet valid;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param capacity the expected number of cells
+     */
+    private NumericColumn(int capacity) {
+        this.ints = new int[capacity];
+        this.valid = new BitSet(capacity);
+    }
+
+    /**
+     * Return the values as a {@code double[]}, which is shared with this
+     * column if it is {@link Type#DOUBLE}. Otherwise, a new array is returned
+     * that contains the widened values, and any {@code long} that is greater
+     * than 2<sup>53</sup> in magnitude may lose precision.
+     * 
+     * @return the values
+     */
+    public double[] doubles() {
+        trim();
+        if(type == Type.DOUBLE) {
+            return doubles;
+        }
+        else {
+            double[] widened = new double[size];
+            for (int i = 0; i < size; ++i) {
+                widened[i] = type == Type.LONG ? longs[i] : ints[i];
+            }
+            return widened;
+        }
+    }
+
+    /**
+     * Return the values as an {@code int[]}, which is shared with this
+     * column.
+     * 
+     * @return the values
+     * @throws IllegalStateException if the column isn't {@link Type#INT}
+     */
+    public int[] ints() {
+        Verify.that(type == Type.INT, "The column is {}", type);
+        trim();
+        return ints;
+    }
+
+    /**
+     * Return {@code true} if the cell at {@code index} was parsed as a
+     * number, or {@code false} if it was invalid.
+     * 
+     * @param index the index of the cell
+     * @return {@code true} if the cell is valid
+     */
+    public boolean isValid(int index) {
+        return valid.get(index);
+    }
+
+    /**
+     * Return the values as a {@code long[]}, which is shared with this
+     * column if it is {@link Type#LONG}. If it is {@link Type#INT}, a new
+     * array is returned that contains the widened values.
+     * 
+     * @return the values
+     * @throws IllegalStateException if the column is {@link Type#DOUBLE}
+     */
+    public long[] longs() {
+        Verify.that(type != Type.DOUBLE, "The column is {}", type);
+        trim();
+        if(type == Type.LONG) {
+            return longs;
+        }
+        else {
+            long[] widened = new long[size];
+            for (int i = 0; i < size; ++i) {
+                widened[i] = ints[i];
+            }
+            return widened;
+        }
+    }
+
+    /**
+     * Return the number of cells.
+     * 
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return the narrowest {@link Type} that can hold all of the values.
+     * 
+     * @return the type
+     */
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Return a copy of the validity bitmap, where the bit for each cell that
+     * was parsed as a number is set.
+     * 
+     * @return the validity bitmap
+     */
+    public BitSet validity() {
+        return (BitSet) valid.clone();
+    }
+
+    /**
+     * Return the number of cells that were parsed as numbers.
+     * 
+     * @return the number of valid cells
+     */
+    public int validCount() {
+        return valid.cardinality();
+    }
+
+    /**
+     * Parse the {@code cell} and append its value to the column, widening the
+     * column if necessary.
+     * 
+     * @param cell the string form of the number
+     */
+    private void add(CharSequence cell) {
+        int index = size;
+        if(index == capacity()) {
+            grow();
+        }
+        ++size;
+        int kind = cell != null ? lexer.lex(cell) : NumberLexer.NOT_A_NUMBER;
+        switch (kind) {
+        case NumberLexer.INTEGER:
+        case NumberLexer.LONG:
+            long integer = lexer.integer();
+            if(type == Type.INT && kind == NumberLexer.INTEGER) {
+                ints[index] = (int) integer;
+            }
+            else if(type != Type.DOUBLE) {
+                if(type == Type.INT) {
+                    widen(Type.LONG);
+                }
+                longs[index] = integer;
+            }
+            else {
+                doubles[index] = integer;
+            }
+            break;
+        case NumberLexer.DECIMAL:
+        case NumberLexer.DOUBLE:
+            double value;
+            try {
+                value = lexer.toDouble(cell);
+            }
+            catch (NumberFormatException e) {
+                return;
+            }
+            if(type != Type.DOUBLE) {
+                widen(Type.DOUBLE);
+            }
+            doubles[index] = value;
+            break;
+        default:
+            return;
+        }
+        valid.set(index);
+    }
+
+    /**
+     * Return the length of the array that holds the values.
+     * 
+     * @return the capacity
+     */
+    private int capacity() {
+        switch (type) {
+        case INT:
+            return ints.length;
+        case LONG:
+            return longs.length;
+        default:
+            return doubles.length;
+        }
+    }
+
+    /**
+     * Double the capacity of the array that holds the values.
+     */
+    private void grow() {
+        int capacity = Math.max(capacity() * 2, 16);
+        switch (type) {
+        case INT:
+            ints = Arrays.copyOf(ints, capacity);
+            break;
+        case LONG:
+            longs = Arrays.copyOf(longs, capacity);
+            break;
+        default:
+            doubles = Arrays.copyOf(doubles, capacity);
+            break;
+        }
+    }
+
+    /**
+     * Ensure that the array that holds the values is exactly the
+     * {@link #size() size} of the column.
+     */
+    private void trim() {
+        if(capacity() != size) {
+            switch (type) {
+            case INT:
+                ints = Arrays.copyOf(ints, size);
+                break;
+            case LONG:
+                longs = Arrays.copyOf(longs, size);
+                break;
+            default:
+                doubles = Arrays.copyOf(doubles, size);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Copy the values that have been parsed into an array of the wider
+     * {@code type}. When a {@link Type#LONG LONG} column is widened to a
+     * {@link Type#DOUBLE DOUBLE} column, any value that is greater than
+     * 2<sup>53</sup> in magnitude is rounded to the nearest {@code double}.
+     * 
+     * @param type the new {@link Type} of the column
+     */
+    private void widen(Type type) {
+        int capacity = capacity();
+        if(type == Type.LONG) {
+            longs = new long[capacity];
+            for (int i = 0; i < size; ++i) {
+                longs[i] = ints[i];
+            }
+        }
+        else {
+            doubles = new double[capacity];
+            for (int i = 0; i < size; ++i) {
+                doubles[i] = this.type == Type.LONG ? longs[i] : ints[i];
+            }
+            longs = null;
+        }
+        ints = null;
+        this.type = type;
+    }
+
+    /**
+     * The primitive types that a {@link NumericColumn} can hold, from the
+     * narrowest to the widest.
+     * 
+     * @author Jeff Nelson
+     */
+    public enum Type {
+        INT, LONG, DOUBLE
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A {@link QuoteAwareStringSplitter} that is also aware of any number of
+ * "wrapper" pairs (e.g. <code>{}</code>, {@code []} and {@code ()}) that may
+ * be nested within one another, in a single pass.
+ * <p>
+ * A delimiter is only split upon if it isn't between quotes and every wrapper
+ * that has been opened has been closed. Wrapper chars that are between quotes
+ * are ignored, and so is a wrapper end char that doesn't close the wrapper
+ * that was opened most recently, so a JSON-like payload such as
+ * <code>{"a": [1, "]"]}, b</code> is split into two tokens.
+ * </p>
+ * <p>
+ * The wrappers are given as a {@link String} of pairs, where each start char
+ * is followed by its end char (i.e. <code>"{}[]()"</code>).
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+public class QuoteAndWrapperAwareStringSplitter
+        extends QuoteAwareStringSplitter {
+
+    /**
+     * The wrapper pairs that make up the bulk of JSON-like payloads.
+     */
+    public static final String JSON_WRAPPERS = "{}[]";
+
+    /**
+     * Verify that {@code wrappers} is a valid {@link String} of wrapper pairs
+     * and return its chars.
+     * 
+     * @param wrappers the wrapper pairs
+     * @return the chars of the wrapper pairs
+     * @throws IllegalArgumentException if {@code wrappers} isn't made up of
+     *             pairs of distinct chars that aren't quotes
+     */
+    static char[] checkWrappers(CharSequence wrappers) {
+        char[] chars = WrapperStack.checkWrappers(wrappers);
+        for (char c : chars) {
+            Verify.thatArgument(c != '\'' && c != '"',
+                    "A quote cannot be a wrapper");
+        }
+        return chars;
+    }
+
+    /**
+     * Return an array that contains the {@code quotes} followed by the
+     * {@code wrappers}.
+     * 
+     * @param quotes the quote chars
+     * @param wrappers the wrapper chars
+     * @return the combined chars
+     */
+    private static char[] concat(char[] quotes, char[] wrappers) {
+        char[] chars = Arrays.copyOf(quotes, quotes.length + wrappers.length);
+        System.arraycopy(wrappers, 0, chars, quotes.length, wrappers.length);
+        return chars;
+    }
+
+    /**
+     * The quotes and the wrapper chars, which are returned from
+     * {@link #updateIsReadyToSplitChars()}.
+     */
+    private final char[] splitChars;
+
+    /**
+     * The wrappers that are open.
+     */
+    private final WrapperStack wrappers;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param wrappers the wrapper pairs, where each start char is followed by
+     *            its end char
+     * @param buffer the {@link ByteBuffer} that contains the UTF-8 bytes to
+     *            split
+     * @param delimiter the delimiter upon which to split; must be an ASCII
+     *            character
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public QuoteAndWrapperAwareStringSplitter(String wrappers,
+            ByteBuffer buffer, char delimiter, SplitOption... options) {
+        super(buffer, delimiter, options);
+        this.wrappers = new WrapperStack(checkWrappers(wrappers));
+        this.splitChars = concat(super.updateIsReadyToSplitChars(),
+                this.wrappers.wrappers());
+        for (char c : this.wrappers.wrappers()) {
+            Verify.thatArgument(c < 0x80,
+                    "The wrappers for a ByteBuffer must be ASCII characters");
+        }
+        reset();
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param wrappers the wrapper pairs, where each start char is followed by
+     *            its end char
+     * @param sequence the {@link CharSequence} to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public QuoteAndWrapperAwareStringSplitter(String wrappers,
+            CharSequence sequence, char delimiter, SplitOption... options) {
+        super(sequence, delimiter, options);
+        this.wrappers = new WrapperStack(checkWrappers(wrappers));
+        this.splitChars = concat(super.updateIsReadyToSplitChars(),
+                this.wrappers.wrappers());
+        reset();
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param wrappers the wrapper pairs, where each start char is followed by
+     *            its end char
+     * @param reader the {@link Reader} to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public QuoteAndWrapperAwareStringSplitter(String wrappers, Reader reader,
+            char delimiter, SplitOption... options) {
+        super(reader, delimiter, options);
+        this.wrappers = new WrapperStack(checkWrappers(wrappers));
+        this.splitChars = concat(super.updateIsReadyToSplitChars(),
+                this.wrappers.wrappers());
+        reset();
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param spec the {@link SplitterSpec}
+     */
+    QuoteAndWrapperAwareStringSplitter(SplitterSpec spec) {
+        super(spec);
+        this.wrappers = new WrapperStack(spec.wrappers);
+        this.splitChars = concat(super.updateIsReadyToSplitChars(),
+                spec.wrappers);
+        reset();
+    }
+
+    @Override
+    protected boolean isReadyToSplit() {
+        // The wrappers aren't assigned while the super constructor runs
+        return (wrappers == null || wrappers.isEmpty())
+                && super.isReadyToSplit();
+    }
+
+    @Override
+    protected void resetIsReadyToSplit() {
+        super.resetIsReadyToSplit();
+        if(wrappers != null) {
+            wrappers.clear();
+        }
+    }
+
+    @Override
+    protected void updateIsReadyToSplit(char c) {
+        super.updateIsReadyToSplit(c);
+        if(wrappers != null && super.isReadyToSplit()) {
+            wrappers.update(c);
+        }
+    }
+
+    @Override
+    protected char[] updateIsReadyToSplitChars() {
+        // The split chars aren't assigned while the super constructor runs
+        return splitChars != null ? splitChars
+                : super.updateIsReadyToSplitChars();
+    }
+
+}
@@ -15,6 +15,11 @@
  */
 package com.cinchapi.common.base;
 
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+
 /**
  * A {@link StringSplitter} that does not split on a delimiter if it falls
  * between single or double quotes
@@ -23,6 +28,11 @@ package com.cinchapi.common.base;
  */
 public class QuoteAwareStringSplitter extends StringSplitter {
 
+    /**
+     * The chars that are relevant to {@link #isReadyToSplit()}.
+     */
+    private static final char[] QUOTES = { '\'', '"' };
+
     /**
      * A flag that indicates whether the splitter is in the middle of a single
      * quoted token.
@@ -36,17 +46,18 @@ public class QuoteAwareStringSplitter extends StringSplitter {
     private boolean inDoubleQuote = false;
 
     /**
-     * We keep track of the previously seen char so we can determine in the
-     * instance of a single quote is really an apostrophe or the beginning of a
-     * quoted token.
+     * The result of the most recent {@link #findClosingSingleQuote(int)
+     * search} for a closing single quote: the position of the first unescaped
+     * single quote at or after {@link #closingSingleQuoteFrom} or {@code -1}
+     * if there is none.
      */
-    private char previousChar = ' ';
+    private int closingSingleQuote = -1;
 
     /**
-     * The position where the most recent single quote character was found. We
-     * keep track of this in case the single quote was actually an apostrophe.
+     * The position where the most recent search for a closing single quote
+     * began, or {@code -1} if there hasn't been a search.
      */
-    private int singleQuotePos = -1;
+    private int closingSingleQuoteFrom = -1;
 
     /**
      * Construct a new instance.
@@ -91,6 +102,85 @@ public class QuoteAwareStringSplitter extends StringSplitter {
         super(string, delimiter, options);
     }
 
+    /**
+     * Construct a new instance.
+     * 
+     * @param chars the array that contains the chars to split
+     * @param offset the index of the first char to split
+     * @param length the number of chars to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public QuoteAwareStringSplitter(char[] chars, int offset, int length,
+            char delimiter, SplitOption... options) {
+        super(chars, offset, length, delimiter, options);
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param sequence the {@link CharSequence} to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public QuoteAwareStringSplitter(CharSequence sequence, char delimiter,
+            SplitOption... options) {
+        super(sequence, delimiter, options);
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param buffer the {@link ByteBuffer} that contains the UTF-8 bytes to
+     *            split
+     * @param delimiter the delimiter upon which to split; must be an ASCII
+     *            character
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public QuoteAwareStringSplitter(ByteBuffer buffer, char delimiter,
+            SplitOption... options) {
+        super(buffer, delimiter, options);
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param channel the {@link ReadableByteChannel} to split
+     * @param charset the {@link Charset} in which the bytes are encoded
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public QuoteAwareStringSplitter(ReadableByteChannel channel,
+            Charset charset, char delimiter, SplitOption... options) {
+        super(channel, charset, delimiter, options);
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param reader the {@link Reader} to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public QuoteAwareStringSplitter(Reader reader, char delimiter,
+            SplitOption... options) {
+        super(reader, delimiter, options);
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param spec the {@link SplitterSpec}
+     */
+    QuoteAwareStringSplitter(SplitterSpec spec) {
+        super(spec);
+    }
+
     @Override
     protected boolean isReadyToSplit() {
         assert (inSingleQuote && inDoubleQuote) == false; // assert that we are
@@ -101,36 +191,79 @@ public class QuoteAwareStringSplitter extends StringSplitter {
         return !inSingleQuote && !inDoubleQuote;
     }
 
+    @Override
+    protected void rebaseIsReadyToSplit(int shift) {
+        if(closingSingleQuoteFrom >= 0) {
+            closingSingleQuoteFrom -= shift;
+            if(closingSingleQuote >= 0) {
+                closingSingleQuote -= shift;
+            }
+        }
+    }
+
+    @Override
+    protected void resetIsReadyToSplit() {
+        inSingleQuote = false;
+        inDoubleQuote = false;
+        closingSingleQuote = -1;
+        closingSingleQuoteFrom = -1;
+    }
+
     @Override
     protected void updateIsReadyToSplit(char c) {
+        // The previous char is read from the source because the chars that
+        // aren't quotes are not passed to this method. We can determine if a
+        // single quote is really an apostrophe or the beginning of a quoted
+        // token by looking at it.
+        int previousChar = codePointBefore(pos - 1);
         if(previousChar != '\\' && c == '\'' && !inDoubleQuote && (inSingleQuote
-                || (!inSingleQuote && !Character.isLetter(previousChar)))) {
+                || (!Character.isLetter(previousChar)
+                        && findClosingSingleQuote(pos) >= 0))) {
             // Assumes that occurrence of single quote only means single quote
-            // if the previous char was not a letter (in which case we assume
-            // the single quote is actually an apostrophe)
+            // if the previous char was not a letter and the quote is closed
+            // later on (otherwise, we assume the single quote is actually an
+            // apostrophe)
             inSingleQuote ^= true;
-            singleQuotePos = pos - 1;
         }
         else if(previousChar != '\\' && c == '"' && !inSingleQuote) {
             inDoubleQuote ^= true;
         }
-        previousChar = c;
     }
 
     @Override
-    public boolean confirmSetNext() {
-        if(inSingleQuote) {
-            // If an attempt is made to set the next while we are in a single
-            // quote we must backtrack because the single quote was actually an
-            // apostrophe
-            inSingleQuote = false;
-            pos = singleQuotePos + 1;
-            singleQuotePos = -1;
-            return false;
-        }
-        else {
-            return super.confirmSetNext();
+    protected char[] updateIsReadyToSplitChars() {
+        return QUOTES;
+    }
+
+    /**
+     * Return the position of the first single quote at or after {@code from}
+     * that isn't escaped, or {@code -1} if there is none.
+     * <p>
+     * A single quote that is not preceded by a letter is only the beginning of
+     * a quoted token if it is closed. This look ahead lets the splitter decide
+     * without having to backtrack. The result is remembered, so across all the
+     * searches each char is examined at most once.
+     * </p>
+     * 
+     * @param from an absolute position in the source
+     * @return the position of the closing single quote
+     */
+    private int findClosingSingleQuote(int from) {
+        if(closingSingleQuoteFrom < 0 || from < closingSingleQuoteFrom
+                || (closingSingleQuote >= 0 && from > closingSingleQuote)) {
+            closingSingleQuoteFrom = from;
+            closingSingleQuote = -1;
+            int previous = peek(from - 1);
+            int c;
+            for (int i = from; (c = peek(i)) >= 0; ++i) {
+                if(c == '\'' && previous != '\\') {
+                    closingSingleQuote = i;
+                    break;
+                }
+                previous = c;
+            }
         }
+        return closingSingleQuote;
     }
 
 }
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link RecordReader} streams the logical records (i.e. the rows of a CSV
+ * file) from a {@link Reader} and returns the fields of each one as an array.
+ * <p>
+ * Records are split by a {@link SplitterSpec} that has
+ * {@link SplitOption#SPLIT_ON_NEWLINE} enabled, so a record ends at a line
+ * break. If the spec is {@link SplitterSpec#isQuoteAware() quote aware}, a
+ * line break that is within quotes is part of a field instead, so a record
+ * can span multiple lines, unlike the lines that are read by
+ * {@link java.io.BufferedReader#readLine()}. The other options in the spec
+ * (i.e. {@link SplitOption#DROP_QUOTES} and
+ * {@link SplitOption#TRIM_WHITESPACE}) are applied to each field.
+ * </p>
+ * <p>
+ * Only the chars of the field that is being split are buffered, so a file of
+ * any size can be read with bounded memory. Blank lines are skipped, but an
+ * empty field at the end of a record is kept, even in the last record, so
+ * every record with the same number of delimiters has the same number of
+ * fields.
+ * </p>
+ * <p>
+ * <h2>Usage</h2>
+ * 
+ * <pre>
+ * SplitterSpec spec = SplitterSpec.builder().delimiter(',').quoteAware()
+ *         .options(SplitOption.SPLIT_ON_NEWLINE, SplitOption.DROP_QUOTES)
+ *         .build();
+ * try (RecordReader records = new RecordReader(file, charset, spec)) {
+ *     while (records.hasNext()) {
+ *         String[] record = records.next();
+ *     }
+ * }
+ * </pre>
+ * 
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+public final class RecordReader implements Iterator<String[]>, Closeable {
+
+    /**
+     * The initial capacity of the {@link #fields} buffer.
+     */
+    private static final int INITIAL_FIELDS = 16;
+
+    /**
+     * A buffer that holds the fields of the record that is being read.
+     */
+    private String[] fields = new String[INITIAL_FIELDS];
+
+    /**
+     * The record that will be returned from {@link #next()}, or {@code null}
+     * if it hasn't been read.
+     */
+    private String[] next = null;
+
+    /**
+     * The source of the records.
+     */
+    private final Reader reader;
+
+    /**
+     * The splitter that streams the fields from the {@link #reader}.
+     */
+    private final StringSplitter splitter;
+
+    /**
+     * Construct a new instance that reads the records in the {@code file}.
+     * 
+     * @param file the {@link Path} of the file to read
+     * @param charset the {@link Charset} of the file
+     * @param spec the {@link SplitterSpec} that splits each record
+     * @throws IllegalArgumentException if the {@code spec} doesn't have
+     *             {@link SplitOption#SPLIT_ON_NEWLINE} enabled
+     */
+    public RecordReader(Path file, Charset charset, SplitterSpec spec) {
+        this(open(file, charset), spec);
+    }
+
+    /**
+     * Construct a new instance that reads the records from the
+     * {@code reader}.
+     * 
+     * @param reader the {@link Reader} to read
+     * @param spec the {@link SplitterSpec} that splits each record
+     * @throws IllegalArgumentException if the {@code spec} doesn't have
+     *             {@link SplitOption#SPLIT_ON_NEWLINE} enabled
+     */
+    public RecordReader(Reader reader, SplitterSpec spec) {
+        Verify.thatArgument(spec.isEnabled(SplitOption.SPLIT_ON_NEWLINE),
+                "The spec must split on newlines to read records");
+        this.reader = reader;
+        this.splitter = spec.newSplitter();
+        splitter.keepTrailingEmptyTokens();
+        splitter.reset(reader);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Return {@code true} if there is another record. If there isn't, the
+     * underlying {@link Reader} is {@link #close() closed}.
+     * 
+     * @return {@code true} if there is another record
+     */
+    @Override
+    public boolean hasNext() {
+        if(next == null) {
+            next = read();
+            if(next == null) {
+                try {
+                    close();
+                }
+                catch (IOException e) {
+                    throw CheckedExceptions.throwAsRuntimeException(e);
+                }
+            }
+        }
+        return next != null;
+    }
+
+    /**
+     * Return the fields of the next record.
+     * 
+     * @return the next record
+     */
+    @Override
+    public String[] next() {
+        if(hasNext()) {
+            String[] record = next;
+            next = null;
+            return record;
+        }
+        else {
+            throw new NoSuchElementException();
+        }
+    }
+
+    /**
+     * Read the fields of the next record that isn't blank.
+     * 
+     * @return the next record or {@code null} if there are no more
+     */
+    private String[] read() {
+        while (splitter.hasNext()) {
+            int count = 0;
+            do {
+                if(count == fields.length) {
+                    fields = Arrays.copyOf(fields, count * 2);
+                }
+                fields[count++] = splitter.next();
+            }
+            while (!splitter.atEndOfLine() && splitter.hasNext());
+            if(count > 1 || !fields[0].isEmpty()) {
+                String[] record = Arrays.copyOf(fields, count);
+                Arrays.fill(fields, 0, count, null);
+                return record;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Open the {@code file} for reading.
+     * 
+     * @param file
+     * @param charset
+     * @return the {@link Reader}
+     */
+    private static Reader open(Path file, Charset charset) {
+        try {
+            return new InputStreamReader(Files.newInputStream(file), charset);
+        }
+        catch (IOException e) {
+            throw CheckedExceptions.throwAsRuntimeException(e);
+        }
+    }
+
+}
@@ -54,6 +54,21 @@ public enum SplitOption {
      */
     public static SplitOption[] NONE = new SplitOption[] {};
 
+    /**
+     * Return an integer whose bits represent each of the enabled
+     * {@code options}.
+     * 
+     * @param options
+     * @return the bitmask
+     */
+    static int toMask(SplitOption... options) {
+        int mask = 0;
+        for (SplitOption option : options) {
+            mask |= 1 << option.mask;
+        }
+        return mask;
+    }
+
     /**
      * The bit mask to use when flipping/checking the appropriate bit to
      * determine if this option is enabled.
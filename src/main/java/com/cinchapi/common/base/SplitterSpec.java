@@ -0,0 +1,607 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An immutable, precompiled description of how to split input.
+ * <p>
+ * A {@link SplitterSpec} captures the delimiter, the {@link SplitOption
+ * options}, whether quotes are respected and the wrapper characters that are
+ * otherwise passed to the constructors of the {@link StringSplitter},
+ * {@link QuoteAwareStringSplitter}, {@link WrapperAwareStringSplitter},
+ * {@link MultiWrapperAwareStringSplitter} and
+ * {@link QuoteAndWrapperAwareStringSplitter}. All
+ * of the setup that a splitter needs (i.e. the option bitmask and the table of
+ * chars that must be inspected while splitting) is done once when the spec is
+ * built, so a single spec can be shared across threads and applied to any
+ * number of inputs.
+ * </p>
+ * <p>
+ * <h2>Usage</h2>
+ * 
+ * <pre>
+ * SplitterSpec spec = SplitterSpec.builder().delimiter(',').quoteAware()
+ *         .options(SplitOption.TRIM_WHITESPACE).build();
+ * StringSplitter splitter = spec.split(line);
+ * while (splitter.hasNext()) {
+ *     String next = splitter.next();
+ * }
+ * </pre>
+ * 
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@Immutable
+public final class SplitterSpec {
+
+    /**
+     * Return a builder for constructing a new {@link SplitterSpec}.
+     * 
+     * @return the builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The delimiter upon which to split. If there is a
+     * {@link #delimiterSequence}, this is its first char.
+     */
+    final char delimiter;
+
+    /**
+     * All the chars upon which to split, if there are more than one. Otherwise,
+     * {@code null}.
+     */
+    final char[] delimiters;
+
+    /**
+     * The multi-char sequence upon which to split, if the delimiter is more
+     * than one char. Otherwise, {@code null}.
+     */
+    final String delimiterSequence;
+
+    /**
+     * A flag that indicates whether every non-ASCII char is a split char.
+     */
+    final boolean nonAsciiSplitChars;
+
+    /**
+     * The bitmask of the enabled {@link SplitOption options}.
+     */
+    final int options;
+
+    /**
+     * A flag that indicates whether delimiters between quotes are ignored.
+     */
+    final boolean quoteAware;
+
+    /**
+     * A bitmap of the ASCII chars in the range [64, 127] that must be
+     * inspected while splitting.
+     */
+    final long splitCharsHigh;
+
+    /**
+     * A bitmap of the ASCII chars in the range [0, 63] that must be inspected
+     * while splitting.
+     */
+    final long splitCharsLow;
+
+    /**
+     * The char that ends a wrapped sequence, if {@link #wrapped}.
+     */
+    final char wrapperEnd;
+
+    /**
+     * The char that begins a wrapped sequence, if {@link #wrapped}.
+     */
+    final char wrapperStart;
+
+    /**
+     * A flag that indicates whether delimiters between the
+     * {@link #wrapperStart} and {@link #wrapperEnd} are ignored.
+     */
+    final boolean wrapped;
+
+    /**
+     * All the wrapper pairs, where each start char is followed by its end
+     * char, if {@link #wrapped}. Otherwise, {@code null}.
+     */
+    final char[] wrappers;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param delimiter
+     * @param delimiters
+     * @param delimiterSequence
+     * @param options
+     * @param quoteAware
+     * @param wrappers
+     */
+    private SplitterSpec(char delimiter, char[] delimiters,
+            String delimiterSequence, int options, boolean quoteAware,
+            char[] wrappers) {
+        this.delimiter = delimiter;
+        this.delimiters = delimiters;
+        this.delimiterSequence = delimiterSequence;
+        this.options = options;
+        this.quoteAware = quoteAware;
+        this.wrapped = wrappers != null;
+        this.wrappers = wrappers;
+        this.wrapperStart = wrapped ? wrappers[0] : 0;
+        this.wrapperEnd = wrapped ? wrappers[1] : 0;
+        StringBuilder chars = new StringBuilder();
+        chars.append(delimiter);
+        if(delimiters != null) {
+            chars.append(delimiters);
+        }
+        if(isEnabled(SplitOption.SPLIT_ON_NEWLINE)) {
+            chars.append('\n').append('\r');
+        }
+        if(isEnabled(SplitOption.TOKENIZE_PARENTHESIS)) {
+            chars.append('(').append(')');
+        }
+        if(quoteAware) {
+            chars.append('\'').append('"');
+        }
+        if(wrapped) {
+            chars.append(wrappers);
+        }
+        long low = 0;
+        long high = 0;
+        boolean nonAscii = false;
+        for (int i = 0; i < chars.length(); ++i) {
+            char c = chars.charAt(i);
+            if(c < 64) {
+                low |= 1L << c;
+            }
+            else if(c < 128) {
+                high |= 1L << (c - 64);
+            }
+            else {
+                nonAscii = true;
+            }
+        }
+        this.splitCharsLow = low;
+        this.splitCharsHigh = high;
+        this.nonAsciiSplitChars = nonAscii;
+    }
+
+    /**
+     * Return the delimiter upon which to split. If the spec has multiple
+     * {@link #delimiters()} or a multi-char delimiter, this is the first char.
+     * 
+     * @return the delimiter
+     */
+    public char delimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Return all the chars upon which to split. If the spec has a multi-char
+     * delimiter, these are the chars of the delimiter.
+     * 
+     * @return the delimiters
+     */
+    public char[] delimiters() {
+        if(delimiterSequence != null) {
+            return delimiterSequence.toCharArray();
+        }
+        else if(delimiters != null) {
+            return delimiters.clone();
+        }
+        else {
+            return new char[] { delimiter };
+        }
+    }
+
+    /**
+     * Return {@code true} if the spec splits on a sequence of chars instead of
+     * on any single one of its {@link #delimiters()}.
+     * 
+     * @return {@code true} if the delimiter has more than one char
+     */
+    public boolean hasMultiCharDelimiter() {
+        return delimiterSequence != null;
+    }
+
+    /**
+     * Return {@code true} if the {@code option} is enabled.
+     * 
+     * @param option the {@link SplitOption} to check
+     * @return {@code true} if the {@code option} is enabled
+     */
+    public boolean isEnabled(SplitOption option) {
+        return (options & (1 << option.mask())) != 0;
+    }
+
+    /**
+     * Return {@code true} if delimiters between quotes are ignored.
+     * 
+     * @return {@code true} if the spec is quote aware
+     */
+    public boolean isQuoteAware() {
+        return quoteAware;
+    }
+
+    /**
+     * Return {@code true} if delimiters between a pair of wrapper chars are
+     * ignored.
+     * 
+     * @return {@code true} if the spec has wrappers
+     */
+    public boolean isWrapped() {
+        return wrapped;
+    }
+
+    /**
+     * Return a new splitter for this spec that isn't bound to any input yet.
+     * Use one of the {@code reset} methods (i.e.
+     * {@link StringSplitter#reset(CharSequence)}) to bind the splitter to the
+     * input that should be split.
+     * 
+     * @return the splitter
+     */
+    public StringSplitter newSplitter() {
+        if(quoteAware && wrapped) {
+            return new QuoteAndWrapperAwareStringSplitter(this);
+        }
+        else if(quoteAware) {
+            return new QuoteAwareStringSplitter(this);
+        }
+        else if(wrapped && wrappers.length > 2) {
+            return new MultiWrapperAwareStringSplitter(this);
+        }
+        else if(wrapped) {
+            return new WrapperAwareStringSplitter(this);
+        }
+        else {
+            return new StringSplitter(this);
+        }
+    }
+
+    /**
+     * Return a new splitter for this spec that splits the UTF-8 encoded bytes
+     * that remain in {@code buffer}.
+     * 
+     * @param buffer the {@link ByteBuffer} that contains the bytes to split
+     * @return the splitter
+     * @throws IllegalArgumentException if the delimiter is not ASCII
+     */
+    public StringSplitter split(ByteBuffer buffer) {
+        StringSplitter splitter = newSplitter();
+        splitter.reset(buffer);
+        return splitter;
+    }
+
+    /**
+     * Return a new splitter for this spec that splits the {@code length}
+     * chars in {@code chars} that begin at {@code offset}.
+     * 
+     * @param chars the array that contains the chars to split
+     * @param offset the index of the first char to split
+     * @param length the number of chars to split
+     * @return the splitter
+     */
+    public StringSplitter split(char[] chars, int offset, int length) {
+        StringSplitter splitter = newSplitter();
+        splitter.reset(chars, offset, length);
+        return splitter;
+    }
+
+    /**
+     * Return a new splitter for this spec that splits {@code sequence}.
+     * 
+     * @param sequence the {@link CharSequence} to split
+     * @return the splitter
+     */
+    public StringSplitter split(CharSequence sequence) {
+        StringSplitter splitter = newSplitter();
+        splitter.reset(sequence);
+        return splitter;
+    }
+
+    /**
+     * Return a new splitter for this spec that streams the chars that are read
+     * from the {@code reader}.
+     * 
+     * @param reader the {@link Reader} to split
+     * @return the splitter
+     */
+    public StringSplitter split(Reader reader) {
+        StringSplitter splitter = newSplitter();
+        splitter.reset(reader);
+        return splitter;
+    }
+
+    /**
+     * Return a {@link Spliterator} over the tokens in the UTF-8 encoded bytes
+     * that remain in {@code buffer}, which can be split into chunks that are
+     * tokenized in parallel.
+     * 
+     * @param buffer the {@link ByteBuffer} that contains the bytes to split
+     * @return the {@link Spliterator}
+     * @throws IllegalArgumentException if the delimiter is not ASCII
+     * @see #spliterator(CharSequence)
+     */
+    public Spliterator<String> spliterator(ByteBuffer buffer) {
+        ByteBuffer source = buffer.duplicate();
+        return new StringSplitterSpliterator(this, position -> {
+            ByteBuffer chunk = source.duplicate();
+            chunk.position(position);
+            StringSplitter splitter = newSplitter();
+            splitter.reset(chunk);
+            return splitter;
+        }, source.position(), source.limit());
+    }
+
+    /**
+     * Return a {@link Spliterator} over the tokens in the {@code length} chars
+     * in {@code chars} that begin at {@code offset}, which can be split into
+     * chunks that are tokenized in parallel.
+     * 
+     * @param chars the array that contains the chars to split
+     * @param offset the index of the first char to split
+     * @param length the number of chars to split
+     * @return the {@link Spliterator}
+     * @see #spliterator(CharSequence)
+     */
+    public Spliterator<String> spliterator(char[] chars, int offset,
+            int length) {
+        if(offset < 0 || length < 0 || offset + length > chars.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        int end = offset + length;
+        return new StringSplitterSpliterator(this, position -> {
+            StringSplitter splitter = newSplitter();
+            splitter.reset(chars, position, end - position);
+            return splitter;
+        }, offset, end);
+    }
+
+    /**
+     * Return a {@link Spliterator} over the tokens in {@code sequence}, which
+     * can be split into chunks that are tokenized in parallel.
+     * <p>
+     * The tokens are reported in order and are the same as those that are
+     * returned from {@link #split(CharSequence)}. Each chunk begins immediately
+     * after a delimiter that causes a split, so no chunk needs to know how
+     * another one ends. If the spec is {@link #isQuoteAware() quote aware} or
+     * {@link #isWrapped() wrapped}, the positions where it is safe to begin a
+     * chunk can only be found by scanning, so each chunk is scanned up to its
+     * middle when it is split; the scans of different chunks run in parallel.
+     * </p>
+     * 
+     * @param sequence the {@link CharSequence} to split
+     * @return the {@link Spliterator}
+     */
+    public Spliterator<String> spliterator(CharSequence sequence) {
+        if(sequence instanceof CharBuffer) {
+            CharBuffer source = ((CharBuffer) sequence).duplicate();
+            return new StringSplitterSpliterator(this, position -> {
+                CharBuffer chunk = source.duplicate();
+                chunk.position(position);
+                StringSplitter splitter = newSplitter();
+                splitter.reset(chunk);
+                return splitter;
+            }, source.position(), source.limit());
+        }
+        else {
+            return new StringSplitterSpliterator(this, position -> {
+                StringSplitter splitter = newSplitter();
+                splitter.reset(sequence, position);
+                return splitter;
+            }, 0, sequence.length());
+        }
+    }
+
+    /**
+     * Return a sequential {@link Stream} of the tokens in {@code sequence}.
+     * Call {@link Stream#parallel()} to tokenize chunks of the
+     * {@code sequence} in parallel.
+     * 
+     * @param sequence the {@link CharSequence} to split
+     * @return the {@link Stream} of tokens
+     * @see #spliterator(CharSequence)
+     */
+    public Stream<String> stream(CharSequence sequence) {
+        return StreamSupport.stream(spliterator(sequence), false);
+    }
+
+    /**
+     * Return the char that ends a wrapped sequence, if the spec
+     * {@link #isWrapped() is wrapped} by a single pair of wrappers. Use
+     * {@link #wrappers()} to get all the pairs.
+     * 
+     * @return the wrapper end char
+     * @throws IllegalStateException if the spec has more than one pair of
+     *             wrappers
+     */
+    public char wrapperEnd() {
+        Verify.that(!wrapped || wrappers.length == 2,
+                "The spec has more than one pair of wrappers");
+        return wrapperEnd;
+    }
+
+    /**
+     * Return the char that begins a wrapped sequence, if the spec
+     * {@link #isWrapped() is wrapped} by a single pair of wrappers. Use
+     * {@link #wrappers()} to get all the pairs.
+     * 
+     * @return the wrapper start char
+     * @throws IllegalStateException if the spec has more than one pair of
+     *             wrappers
+     */
+    public char wrapperStart() {
+        Verify.that(!wrapped || wrappers.length == 2,
+                "The spec has more than one pair of wrappers");
+        return wrapperStart;
+    }
+
+    /**
+     * Return all the wrapper pairs, where each start char is followed by its
+     * end char, if the spec {@link #isWrapped() is wrapped}. Otherwise,
+     * return an empty array.
+     * 
+     * @return the wrapper pairs
+     */
+    public char[] wrappers() {
+        return wrapped ? wrappers.clone() : new char[0];
+    }
+
+    /**
+     * A builder for {@link SplitterSpec}.
+     * 
+     * @author Jeff Nelson
+     */
+    public static class Builder {
+
+        private char delimiter = ' ';
+        private char[] delimiters = null;
+        private String delimiterSequence = null;
+        private SplitOption[] options = SplitOption.NONE;
+        private boolean quoteAware = false;
+        private StringBuilder wrappers = null;
+
+        private Builder() {/* no-op */}
+
+        /**
+         * Build the {@link SplitterSpec}.
+         * 
+         * @return the SplitterSpec
+         * @throws IllegalArgumentException if the
+         *             {@link #wrappers(char, char) wrapper} chars aren't
+         *             distinct, or a wrapper char of a {@link #quoteAware()
+         *             quote aware} spec is a quote
+         */
+        public SplitterSpec build() {
+            char[] wrappers = null;
+            if(this.wrappers != null) {
+                wrappers = quoteAware
+                        ? QuoteAndWrapperAwareStringSplitter
+                                .checkWrappers(this.wrappers)
+                        : WrapperStack.checkWrappers(this.wrappers);
+            }
+            return new SplitterSpec(delimiter, delimiters, delimiterSequence,
+                    SplitOption.toMask(options), quoteAware, wrappers);
+        }
+
+        /**
+         * Set the delimiter upon which to split. The default is a space.
+         * 
+         * @param delimiter the delimiter
+         * @return the builder
+         */
+        public Builder delimiter(char delimiter) {
+            this.delimiter = delimiter;
+            this.delimiters = null;
+            this.delimiterSequence = null;
+            return this;
+        }
+
+        /**
+         * Set a multi-char delimiter upon which to split. Like
+         * {@link String#split(String)}, occurrences of the delimiter are
+         * matched from left to right without overlapping.
+         * 
+         * @param delimiter the delimiter
+         * @return the builder
+         */
+        public Builder delimiter(String delimiter) {
+            Verify.thatArgument(!delimiter.isEmpty(),
+                    "The delimiter cannot be empty");
+            delimiter(delimiter.charAt(0));
+            this.delimiterSequence = delimiter.length() > 1 ? delimiter
+                    : null;
+            return this;
+        }
+
+        /**
+         * Split on any of the {@code delimiters}.
+         * 
+         * @param delimiters the chars upon which to split
+         * @return the builder
+         */
+        public Builder delimiters(char... delimiters) {
+            Verify.thatArgument(delimiters.length > 0,
+                    "There must be at least one delimiter");
+            delimiter(delimiters[0]);
+            this.delimiters = delimiters.length > 1 ? delimiters.clone()
+                    : null;
+            return this;
+        }
+
+        /**
+         * Set the {@link SplitOption options} that supplement the split
+         * behaviour.
+         * 
+         * @param options the options
+         * @return the builder
+         */
+        public Builder options(SplitOption... options) {
+            this.options = options.clone();
+            return this;
+        }
+
+        /**
+         * Ignore delimiters that occur between single or double quotes, like
+         * the {@link QuoteAwareStringSplitter}.
+         * 
+         * @return the builder
+         */
+        public Builder quoteAware() {
+            this.quoteAware = true;
+            return this;
+        }
+
+        /**
+         * Ignore delimiters that occur between the {@code start} and
+         * {@code end} chars, like the {@link WrapperAwareStringSplitter}.
+         * <p>
+         * This can be called more than once to add pairs of wrappers that may
+         * be nested within one another, like the
+         * {@link MultiWrapperAwareStringSplitter} or, if the spec is
+         * {@link #quoteAware() quote aware}, the
+         * {@link QuoteAndWrapperAwareStringSplitter}.
+         * </p>
+         * 
+         * @param start the char that begins a wrapped sequence
+         * @param end the char that ends a wrapped sequence
+         * @return the builder
+         */
+        public Builder wrappers(char start, char end) {
+            Verify.thatArgument(start != end);
+            if(wrappers == null) {
+                wrappers = new StringBuilder();
+            }
+            wrappers.append(start).append(end);
+            return this;
+        }
+    }
+
+}
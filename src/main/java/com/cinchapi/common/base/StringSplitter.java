@@ -17,7 +17,26 @@ package com.cinchapi.common.base;
 
 import static com.cinchapi.common.base.SplitOption.*;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.Nullable;
 
 /**
  * An in-place utility to traverse and split a string into substring.
@@ -40,10 +59,64 @@ import java.util.NoSuchElementException;
  * </pre>
  * 
  * </p>
+ * <p>
+ * In addition to a {@link String}, a splitter can traverse any
+ * {@link CharSequence} (i.e. a {@link StringBuilder} or {@link CharBuffer}) or
+ * a range within a {@code char} array. The source is scanned in place, so the
+ * only copies that are made are the tokens that are returned.
+ * </p>
+ * <p>
+ * If a token doesn't need to be materialized as a {@link String}, use
+ * {@link #nextToken()} or {@link #forEachToken(Consumer)} to process each
+ * token as a {@link Token} view of the source without any allocation.
+ * </p>
+ * <p>
+ * The next token can also be parsed in place with {@link #nextInt()},
+ * {@link #nextLong()}, {@link #nextDouble()}, {@link #nextNumber()} or
+ * {@link #nextBoolean()}. Like a {@link java.util.Scanner Scanner}, each of
+ * them throws an {@link InputMismatchException} if the token isn't of the
+ * requested type, in which case the token isn't consumed, so it can be read
+ * in another way. The matching {@code hasNext} method (i.e.
+ * {@link #hasNextInt()}) checks the token without consuming it.
+ * </p>
+ * <p>
+ * A splitter can also stream chars from a {@link Reader} or a
+ * {@link ReadableByteChannel}. In that case, only the chars of the token that
+ * is being processed are buffered, so inputs that don't fit in memory can be
+ * split incrementally.
+ * </p>
+ * <p>
+ * Finally, a splitter can traverse the UTF-8 encoded bytes in a
+ * {@link ByteBuffer} without decoding them first. Since the bytes of a
+ * multi-byte UTF-8 sequence are never in the ASCII range, an ASCII delimiter
+ * (or quote or wrapper) can be matched byte for byte and a token is only
+ * decoded if it is materialized as a {@link String}.
+ * </p>
+ * <p>
+ * A splitter is an {@link Iterator} over its remaining tokens, which can also
+ * be traversed as a {@link #stream() Stream}.
+ * </p>
+ * <p>
+ * If many of the tokens are equal (i.e. the values of a low cardinality
+ * column), {@link #setInterner(TokenInterner) set} a {@link TokenInterner} so
+ * that {@link #next()} returns a canonical {@link String} for each repeated
+ * token instead of allocating a new one.
+ * </p>
  * 
  * @author Jeff Nelson
  */
-public class StringSplitter {
+public class StringSplitter implements Iterator<String> {
+
+    /**
+     * The initial number of chars that are buffered when splitting a
+     * {@link Reader}.
+     */
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    /**
+     * The default return value for {@link #updateIsReadyToSplitChars()}.
+     */
+    private static final char[] NO_CHARS = new char[0];
 
     /**
      * An integer that contains bits representing {@link SplitOption split
@@ -61,15 +134,116 @@ public class StringSplitter {
     protected int pos = 0;
 
     /**
-     * The char array of the string that is being split.
+     * The position in the source of the first char in {@link #chars}. This is
+     * always {@code 0} unless the source is a {@link #reader}, in which case
+     * {@link #chars} is a sliding buffer over the stream.
+     */
+    private int base = 0;
+
+    /**
+     * The number of chars that were discarded from the start of the
+     * {@link #reader} stream when the positions were last {@link #rebase()
+     * rebased}. The absolute position of a char in the stream is this plus
+     * its position.
+     */
+    private long discarded = 0;
+
+    /**
+     * The {@link ByteBuffer} that is being split, if the source is a direct
+     * buffer of UTF-8 bytes. It is indexed absolutely, so its position is never
+     * changed.
+     */
+    private ByteBuffer bytes;
+
+    /**
+     * The char array that is being split, if the source is array backed.
+     * Either this, {@link #sequence}, {@link #octets} or {@link #bytes} is
+     * non-null.
      */
     private char[] chars;
 
     /**
-     * The delimiter to use for splitting.
+     * A flag that indicates whether the end of the {@link #reader} has been
+     * reached.
+     */
+    private boolean eof = false;
+
+    /**
+     * The byte array that is being split, if the source is a heap buffer of
+     * UTF-8 bytes.
+     */
+    private byte[] octets;
+
+    /**
+     * The {@link Reader} that supplies the chars in {@link #chars}, if the
+     * source is a stream.
+     */
+    private Reader reader = null;
+
+    /**
+     * The position of the token that was most recently returned. When
+     * streaming, the buffer must retain the chars of that token in case it was
+     * returned as a {@link Token} view.
+     */
+    private int returnedOffset = 0;
+
+    /**
+     * The {@link CharSequence} that is being split, if the source is not array
+     * backed.
+     */
+    private CharSequence sequence;
+
+    /**
+     * The position in the source where splitting begins.
+     */
+    private int offset;
+
+    /**
+     * A flag that indicates whether every non-ASCII char is a split char (see
+     * {@link #isSplitChar(char)}).
+     */
+    private boolean nonAsciiSplitChars;
+
+    /**
+     * The difference between an absolute position in the source and the
+     * corresponding index that is reported to the caller (i.e. the array offset
+     * of a {@link CharBuffer}).
+     */
+    private int origin;
+
+    /**
+     * The position in the source (exclusive) where splitting ends.
+     */
+    private int limit;
+
+    /**
+     * The delimiter to use for splitting. If there is a
+     * {@link #delimiterSequence}, this is its first char.
      */
     private final char delimiter;
 
+    /**
+     * A bitmap of the ASCII {@link #delimiters} in the range [64, 127].
+     */
+    private long delimitersHigh = 0;
+
+    /**
+     * A bitmap of the ASCII {@link #delimiters} in the range [0, 63].
+     */
+    private long delimitersLow = 0;
+
+    /**
+     * All the chars upon which to split, if there are more than one. Otherwise,
+     * {@code null}.
+     */
+    private char[] delimiters = null;
+
+    /**
+     * The multi-char sequence upon which to split, if the delimiter is more
+     * than one char. Otherwise, {@code null}.
+     */
+    private String delimiterSequence = null;
+
     /**
      * A flag that controls whether an attempt to split on a newline character
      * sequence should ignore the line feed character ('\n') because the
@@ -83,6 +257,13 @@ public class StringSplitter {
      */
     private boolean ignoreLF = false;
 
+    /**
+     * A flag that indicates whether an empty token at the end of the source
+     * is returned instead of being dropped for compatibility with
+     * {@link String#split(String)}.
+     */
+    private boolean keepTrailingEmptyTokens = false;
+
     /**
      * A flag that is set in the {@link #next()} method whenever it grabs a
      * {@link #next} token that was determined to be at the end of line. This
@@ -92,9 +273,21 @@ public class StringSplitter {
     private boolean lastEOL = false;
 
     /**
-     * The next string to return.
+     * The length of the next token to return or {@code -1} if there are no
+     * more tokens.
      */
-    private String next = null;
+    private int nextLength = -1;
+
+    /**
+     * The position in the source where the next token to return begins.
+     */
+    private int nextOffset = 0;
+
+    /**
+     * The position in the source where the next token to return begins before
+     * any whitespace or quotes are dropped from it.
+     */
+    private int nextRawOffset = 0;
 
     /**
      * A flag that is set in the {@link #findNext()} method whenever it
@@ -114,11 +307,66 @@ public class StringSplitter {
      */
     private boolean overrideEmptyNext = false;
 
+    /**
+     * A bitmap of the ASCII chars in the range [0, 63] that are split chars
+     * (see {@link #isSplitChar(char)}).
+     */
+    private long splitCharsLow;
+
+    /**
+     * A bitmap of the ASCII chars in the range [64, 127] that are split chars
+     * (see {@link #isSplitChar(char)}).
+     */
+    private long splitCharsHigh;
+
+    /**
+     * The {@link SplitterSpec} that this splitter was created from, if any.
+     */
+    private final SplitterSpec spec;
+
     /**
      * The start of the next token.
      */
     private int start = 0;
 
+    /**
+     * The position where the most recent search for a trailing empty token
+     * stopped. Every char between {@link #trailingScanFrom} and this one is the
+     * delimiter, so a subsequent search never needs to look at those chars
+     * again.
+     */
+    private int trailingScan = 0;
+
+    /**
+     * The position where the run of delimiters that ends at
+     * {@link #trailingScan} begins.
+     */
+    private int trailingScanFrom = 0;
+
+    /**
+     * The reusable view that is returned from {@link #nextToken()}; lazily
+     * created.
+     */
+    private Token token = null;
+
+    /**
+     * The {@link TokenInterner} that canonicalizes the tokens that are
+     * returned from {@link #next()}, if any.
+     */
+    private TokenInterner interner = null;
+
+    /**
+     * The reusable view that the {@code hasNext} methods use to check the
+     * next token without changing the {@link #token}; lazily created.
+     */
+    private Token lookahead = null;
+
+    /**
+     * The reusable {@link NumberLexer} that parses the next token in the
+     * typed {@code next} methods (i.e. {@link #nextInt()}); lazily created.
+     */
+    private NumberLexer lexer = null;
+
     /**
      * Construct a new instance.
      * 
@@ -148,13 +396,156 @@ public class StringSplitter {
      */
     public StringSplitter(String string, char delimiter,
             SplitOption... options) {
-        this.chars = string.toCharArray();
+        this((CharSequence) string, delimiter, options);
+    }
+
+    /**
+     * Construct a new instance that splits the {@code length} chars in
+     * {@code chars} that begin at {@code offset}.
+     * <p>
+     * The array is not copied, so it must not be modified while the splitter
+     * is in use.
+     * </p>
+     * 
+     * @param chars the array that contains the chars to split
+     * @param offset the index of the first char to split
+     * @param length the number of chars to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public StringSplitter(char[] chars, int offset, int length,
+            char delimiter, SplitOption... options) {
         this.delimiter = delimiter;
-        int opts = 0;
-        for (SplitOption option : options) {
-            opts |= 1 << option.mask();
-        }
-        this.options = opts;
+        this.options = SplitOption.toMask(options);
+        this.spec = null;
+        setSource(chars, offset, length);
+        compileSplitChars();
+        findNext();
+    }
+
+    /**
+     * Construct a new instance.
+     * <p>
+     * If {@code sequence} is a {@link CharBuffer}, its remaining chars are
+     * split without changing its position.
+     * </p>
+     * 
+     * @param sequence the {@link CharSequence} to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public StringSplitter(CharSequence sequence, char delimiter,
+            SplitOption... options) {
+        this.delimiter = delimiter;
+        this.options = SplitOption.toMask(options);
+        this.spec = null;
+        setSource(sequence);
+        compileSplitChars();
+        findNext();
+    }
+
+    /**
+     * Construct a new instance that splits on any of the {@code delimiters}.
+     * 
+     * @param sequence the {@link CharSequence} to split
+     * @param delimiters the chars upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public StringSplitter(CharSequence sequence, char[] delimiters,
+            SplitOption... options) {
+        this(SplitterSpec.builder().delimiters(delimiters).options(options)
+                .build());
+        reset(sequence);
+    }
+
+    /**
+     * Construct a new instance that splits on each occurrence of the
+     * {@code delimiter} sequence. Like {@link String#split(String)},
+     * occurrences are matched from left to right without overlapping.
+     * 
+     * @param sequence the {@link CharSequence} to split
+     * @param delimiter the sequence of chars upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public StringSplitter(CharSequence sequence, String delimiter,
+            SplitOption... options) {
+        this(SplitterSpec.builder().delimiter(delimiter).options(options)
+                .build());
+        reset(sequence);
+    }
+
+    /**
+     * Construct a new instance that splits the UTF-8 encoded bytes that remain
+     * in {@code buffer} without decoding them.
+     * <p>
+     * The {@code buffer}'s position is not changed. Tokens are located by
+     * scanning for the ASCII {@code delimiter} byte for byte and are only
+     * decoded if they are materialized as a {@link String}. In this mode, the
+     * {@link Token#offset() offset} and {@link Token#length() length} of a
+     * {@link Token} are measured in bytes.
+     * </p>
+     * 
+     * @param buffer the {@link ByteBuffer} that contains the bytes to split
+     * @param delimiter the delimiter upon which to split; must be an ASCII
+     *            character
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     * @throws IllegalArgumentException if the {@code delimiter} is not ASCII
+     */
+    public StringSplitter(ByteBuffer buffer, char delimiter,
+            SplitOption... options) {
+        this.delimiter = delimiter;
+        this.options = SplitOption.toMask(options);
+        this.spec = null;
+        setSource(buffer);
+        compileSplitChars();
+        findNext();
+    }
+
+    /**
+     * Construct a new instance that splits the chars that are decoded from the
+     * {@code channel} using the {@code charset}.
+     * <p>
+     * The chars are streamed from the {@code channel} as the splitter advances
+     * and the {@code channel} is not closed when the end is reached.
+     * </p>
+     * 
+     * @param channel the {@link ReadableByteChannel} to split
+     * @param charset the {@link Charset} in which the bytes are encoded
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public StringSplitter(ReadableByteChannel channel, Charset charset,
+            char delimiter, SplitOption... options) {
+        this(Channels.newReader(channel, charset.newDecoder(), -1), delimiter,
+                options);
+    }
+
+    /**
+     * Construct a new instance that splits the chars that are read from the
+     * {@code reader}.
+     * <p>
+     * The chars are streamed from the {@code reader} as the splitter advances
+     * and the {@code reader} is not closed when the end is reached.
+     * </p>
+     * 
+     * @param reader the {@link Reader} to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public StringSplitter(Reader reader, char delimiter,
+            SplitOption... options) {
+        this.delimiter = delimiter;
+        this.options = SplitOption.toMask(options);
+        this.spec = null;
+        setSource(reader);
+        compileSplitChars();
         findNext();
     }
 
@@ -169,6 +560,34 @@ public class StringSplitter {
         this(string, ' ', options);
     }
 
+    /**
+     * Construct a new instance that splits according to the {@code spec}. The
+     * splitter must be {@link #reset(CharSequence) reset} to the input that
+     * should be split.
+     * 
+     * @param spec the {@link SplitterSpec}
+     */
+    StringSplitter(SplitterSpec spec) {
+        this.delimiter = spec.delimiter;
+        this.options = spec.options;
+        this.spec = spec;
+        if(spec.delimiters != null) {
+            this.delimiters = spec.delimiters;
+            for (char c : delimiters) {
+                if(c < 64) {
+                    delimitersLow |= 1L << c;
+                }
+                else if(c < 128) {
+                    delimitersHigh |= 1L << (c - 64);
+                }
+            }
+        }
+        this.delimiterSequence = spec.delimiterSequence;
+        setSource("");
+        compileSplitChars();
+        findNext();
+    }
+
     /**
      * Return {@code true} if {@link SplitOption#SPLIT_ON_NEWLINE} is
      * {@link SplitOption#isEnabled(StringSplitter) enabled} and the last token
@@ -181,113 +600,1084 @@ public class StringSplitter {
         return lastEOL;
     }
 
+    /**
+     * Perform the {@code action} on each of the remaining tokens, in order.
+     * <p>
+     * The {@link Token} that is passed to the {@code action} is a reused view
+     * of the source, so it is only valid for the duration of the call.
+     * </p>
+     * 
+     * @param action the action to perform on each {@link Token}
+     */
+    public void forEachToken(Consumer<? super Token> action) {
+        while (hasNext()) {
+            action.accept(nextToken());
+        }
+    }
+
     /**
      * Return {@code true} if this splitter has any remaining substrings.
      * 
      * @return {@code true} if there is another element
      */
+    @Override
     public boolean hasNext() {
-        return next != null;
+        return nextLength >= 0;
     }
 
     /**
-     * Return the next substring that results from splitting the original source
-     * string.
+     * Return {@code true} if the next token can be read by
+     * {@link #nextBoolean()}. The token isn't consumed.
      * 
-     * @return the new substring
+     * @return {@code true} if the next token is a {@code boolean}
      */
-    public String next() {
-        if(next == null) {
-            throw new NoSuchElementException();
-        }
-        else {
-            String result = next;
-            if(lastEOL) {
-                lastEOL = false;
-            }
-            if(nextEOL) {
-                lastEOL = true;
-                nextEOL = false;
-            }
-            findNext();
-            return result;
-        }
+    public boolean hasNextBoolean() {
+        return hasNext() && toBoolean(lookahead()) != null;
     }
 
     /**
-     * Reset the splitter.
+     * Return {@code true} if the next token can be read by
+     * {@link #nextDouble()}. The token isn't consumed.
+     * 
+     * @return {@code true} if the next token is a number
      */
-    public void reset() {
-        pos = 0;
-        start = 0;
-        findNext();
+    public boolean hasNextDouble() {
+        return hasNextNumber();
     }
 
     /**
-     * Return an array that contains all the tokens after traversing through the
-     * entire split process.
+     * Return {@code true} if the next token can be read by {@link #nextInt()}.
+     * The token isn't consumed.
      * 
-     * @return the tokens
+     * @return {@code true} if the next token is an {@code int}
      */
-    public String[] toArray() {
-        ArrayBuilder<String> builder = ArrayBuilder.builder();
-        while (hasNext()) {
-            builder.add(next());
-        }
-        return builder.length() > 0 ? builder.build() : Array.containing();
+    public boolean hasNextInt() {
+        return hasNext() && lex(lookahead()) == NumberLexer.INTEGER;
     }
 
     /**
-     * Before an attempt is made to {@link #setNext() set the next token} do
-     * some analysis on the internal state of the splitter to see if its
-     * actually appropriate to do so. If the next token should not be set,
-     * return {@code false} from this method and also optionally change the
-     * {@link #pos} pointer to rewind the splitter.
+     * Return {@code true} if the next token can be read by
+     * {@link #nextLong()}. The token isn't consumed.
      * 
-     * @return {@code true} if the splitter is indeed ready to set the next
-     *         token
+     * @return {@code true} if the next token is a {@code long}
      */
-    protected boolean confirmSetNext() {
-        return true;
+    public boolean hasNextLong() {
+        if(hasNext()) {
+            int type = lex(lookahead());
+            return type == NumberLexer.INTEGER || type == NumberLexer.LONG;
+        }
+        else {
+            return false;
+        }
     }
 
     /**
-     * Determine, based on state factors that are recorded within the class, if
-     * the splitter is actually ready to split the string on an instance of the
-     * delimiter. By default, this method always returns {@code true}, but a
-     * subclass can use it for awareness of certain conditions that would mean a
-     * string should not be split on an instance of the delimiter (i.e. if the
-     * delimiter occurs within quotes).
+     * Return {@code true} if the next token can be read by
+     * {@link #nextNumber()}. The token isn't consumed.
      * 
-     * @return {@code true} if the splitter is actually ready to perform a split
+     * @return {@code true} if the next token is a number
      */
-    protected boolean isReadyToSplit() {
-        return true;
+    public boolean hasNextNumber() {
+        if(hasNext()) {
+            Token token = lookahead();
+            switch (lex(token)) {
+            case NumberLexer.INTEGER:
+            case NumberLexer.LONG:
+                return true;
+            case NumberLexer.DECIMAL:
+            case NumberLexer.DOUBLE:
+                try {
+                    lexer.toDouble(token);
+                    return true;
+                }
+                catch (NumberFormatException e) {
+                    return false;
+                }
+            default:
+                return false;
+            }
+        }
+        else {
+            return false;
+        }
     }
 
     /**
-     * Given a character {@code c} that is processed by the splitter, update the
-     * state that determines whether the splitter would actually be ready to
-     * split in the event that it encounters a delimiter character.
-     * 
+     * Return the next substring that results from splitting the original source
+     * string.
+     * 
+     * @return the new substring
+     */
+    @Override
+    public String next() {
+        if(nextLength < 0) {
+            throw new NoSuchElementException();
+        }
+        else {
+            String result = interner != null ? intern()
+                    : substring(nextOffset, nextLength);
+            advance();
+            return result;
+        }
+    }
+
+    /**
+     * Return the {@code boolean} value of the next token, which must be equal,
+     * ignoring case, to {@code true} or {@code false} according to the rules
+     * of {@link AnyStrings#tryParseBoolean(String)}.
+     * <p>
+     * The token is compared in place, so no intermediate {@link String} is
+     * created. If the token isn't a {@code boolean}, it isn't consumed.
+     * </p>
+     * 
+     * @return the value of the next token
+     * @throws InputMismatchException if the next token is not a
+     *             {@code boolean}
+     * @throws NoSuchElementException if there are no more tokens
+     */
+    public boolean nextBoolean() {
+        Token token = peekToken();
+        Boolean value = toBoolean(token);
+        if(value != null) {
+            advance();
+            return value;
+        }
+        else {
+            throw notA("boolean", token);
+        }
+    }
+
+    /**
+     * Return the {@code double} value of the next token, which must be a
+     * number according to the rules of
+     * {@link AnyStrings#tryParseNumber(String)}.
+     * <p>
+     * The value is parsed directly from the source, so no intermediate
+     * {@link String} is created for a whole number or a decimal that has no
+     * more than 15 significant digits. Unlike
+     * {@link AnyStrings#tryParseNumber(String)}, a decimal is never narrowed
+     * to a {@code float}. If the token isn't a number, it isn't consumed.
+     * </p>
+     * 
+     * @return the value of the next token
+     * @throws InputMismatchException if the next token is not a number
+     * @throws NoSuchElementException if there are no more tokens
+     */
+    public double nextDouble() {
+        Token token = peekToken();
+        double value;
+        switch (lex(token)) {
+        case NumberLexer.INTEGER:
+        case NumberLexer.LONG:
+            value = lexer.integer();
+            break;
+        case NumberLexer.DECIMAL:
+        case NumberLexer.DOUBLE:
+            try {
+                value = lexer.toDouble(token);
+            }
+            catch (NumberFormatException e) {
+                throw notA("number", token);
+            }
+            break;
+        default:
+            throw notA("number", token);
+        }
+        advance();
+        return value;
+    }
+
+    /**
+     * Return the {@code int} value of the next token, which must be a whole
+     * number that fits in an {@code int} according to the rules of
+     * {@link AnyStrings#tryParseNumber(String)}.
+     * <p>
+     * The value is parsed directly from the source, so no intermediate
+     * {@link String} is created. If the token isn't an {@code int}, it isn't
+     * consumed.
+     * </p>
+     * 
+     * @return the value of the next token
+     * @throws InputMismatchException if the next token is not an {@code int}
+     * @throws NoSuchElementException if there are no more tokens
+     */
+    public int nextInt() {
+        Token token = peekToken();
+        if(lex(token) == NumberLexer.INTEGER) {
+            advance();
+            return (int) lexer.integer();
+        }
+        else {
+            throw notA("int", token);
+        }
+    }
+
+    /**
+     * Return the {@code long} value of the next token, which must be a whole
+     * number that fits in a {@code long} according to the rules of
+     * {@link AnyStrings#tryParseNumber(String)}.
+     * <p>
+     * The value is parsed directly from the source, so no intermediate
+     * {@link String} is created. If the token isn't a {@code long}, it isn't
+     * consumed.
+     * </p>
+     * 
+     * @return the value of the next token
+     * @throws InputMismatchException if the next token is not a {@code long}
+     * @throws NoSuchElementException if there are no more tokens
+     */
+    public long nextLong() {
+        Token token = peekToken();
+        int type = lex(token);
+        if(type == NumberLexer.INTEGER || type == NumberLexer.LONG) {
+            advance();
+            return lexer.integer();
+        }
+        else {
+            throw notA("long", token);
+        }
+    }
+
+    /**
+     * Return the next token as the {@link Number} that
+     * {@link AnyStrings#tryParseNumber(String)} would return for it.
+     * <p>
+     * A whole number, or a decimal with the {@code D} suffix, is parsed
+     * directly from the source, so no intermediate {@link String} is created.
+     * If the token isn't a number, or appears to be a number but cannot be
+     * parsed as one, it isn't consumed.
+     * </p>
+     * 
+     * @return the next token as a {@link Number}
+     * @throws InputMismatchException if the next token is not a number
+     * @throws NoSuchElementException if there are no more tokens
+     */
+    public Number nextNumber() {
+        Token token = peekToken();
+        int type = lex(token);
+        Number value;
+        switch (type) {
+        case NumberLexer.INTEGER:
+            value = (int) lexer.integer();
+            break;
+        case NumberLexer.LONG:
+            value = lexer.integer();
+            break;
+        case NumberLexer.DOUBLE:
+        case NumberLexer.DECIMAL:
+            try {
+                if(type == NumberLexer.DOUBLE) {
+                    value = lexer.toDouble(token);
+                }
+                else {
+                    value = lexer.toDecimal(token);
+                }
+            }
+            catch (NumberFormatException e) {
+                throw notA("number", token);
+            }
+            break;
+        default:
+            throw notA("number", token);
+        }
+        advance();
+        return value;
+    }
+
+    /**
+     * Return the next token that results from splitting the original source as
+     * a {@link Token} view instead of a new {@link String}.
+     * <p>
+     * The returned {@link Token} is reused by this splitter, so it is only
+     * valid until the next call to {@link #next()}, {@link #nextToken()} or
+     * {@link #reset()}. Call {@link Token#toString()} to materialize it.
+     * </p>
+     * 
+     * @return a view of the next token
+     */
+    public Token nextToken() {
+        Token token = peekToken();
+        advance();
+        return token;
+    }
+
+    /**
+     * Return the remaining tokens at the positions in {@code fields}, where the
+     * next token is at position {@code 0}. The returned array is parallel to
+     * {@code fields}, so the token at {@code fields[i]} is at index {@code i}
+     * and is {@code null} if there are fewer tokens.
+     * <p>
+     * The tokens at other positions are skipped without being materialized
+     * and the splitter stops after the token at the greatest position in
+     * {@code fields}, so the tokens after it remain. If
+     * {@link SplitOption#SPLIT_ON_NEWLINE} is enabled, the positions are
+     * within the current line and the splitter instead stops at the end of
+     * that line, so the next projection applies to the next line.
+     * </p>
+     * 
+     * @param fields the positions of the tokens to return
+     * @return the projected tokens
+     * @throws IllegalArgumentException if any of the {@code fields} is
+     *             negative
+     */
+    public String[] project(int... fields) {
+        // Sort the positions, while remembering where each one was
+        // requested, so the tokens can be matched in a single pass
+        long[] wanted = new long[fields.length];
+        for (int i = 0; i < fields.length; ++i) {
+            Verify.thatArgument(fields[i] >= 0,
+                    "Field positions cannot be negative");
+            wanted[i] = ((long) fields[i] << 32) | i;
+        }
+        Arrays.sort(wanted);
+        boolean lines = SPLIT_ON_NEWLINE.isEnabled(this);
+        String[] projection = new String[fields.length];
+        int w = 0;
+        for (int field = 0; hasNext()
+                && (w < wanted.length || lines); ++field) {
+            if(w < wanted.length && (int) (wanted[w] >>> 32) == field) {
+                String next = next();
+                do {
+                    projection[(int) wanted[w]] = next;
+                    ++w;
+                }
+                while (w < wanted.length
+                        && (int) (wanted[w] >>> 32) == field);
+            }
+            else {
+                advance();
+            }
+            if(lastEOL) {
+                break;
+            }
+        }
+        return projection;
+    }
+
+    /**
+     * Return the remaining tokens whose positions, where the next token is at
+     * position {@code 0}, match the {@code wanted} predicate, in order.
+     * <p>
+     * The tokens at other positions are skipped without being materialized.
+     * If {@link SplitOption#SPLIT_ON_NEWLINE} is enabled, the positions are
+     * within the current line and the splitter stops at the end of that line.
+     * </p>
+     * 
+     * @param wanted a predicate that returns {@code true} for each position
+     *            whose token should be returned
+     * @return the projected tokens
+     */
+    public String[] project(IntPredicate wanted) {
+        ArrayBuilder<String> builder = ArrayBuilder.builder();
+        for (int field = 0; hasNext(); ++field) {
+            if(wanted.test(field)) {
+                builder.add(next());
+            }
+            else {
+                advance();
+            }
+            if(lastEOL) {
+                break;
+            }
+        }
+        return builder.length() > 0 ? builder.build() : Array.containing();
+    }
+
+    /**
+     * Reset the splitter.
+     * 
+     * @throws IllegalStateException if the source is a stream whose beginning
+     *             is no longer buffered
+     */
+    public void reset() {
+        if(base > offset) {
+            throw new IllegalStateException("Cannot reset a splitter "
+                    + "after its stream has been consumed");
+        }
+        compileSplitChars();
+        pos = offset;
+        start = offset;
+        returnedOffset = offset;
+        trailingScan = offset;
+        trailingScanFrom = offset;
+        ignoreLF = false;
+        lastEOL = false;
+        nextEOL = false;
+        overrideEmptyNext = false;
+        resetIsReadyToSplit();
+        findNext();
+    }
+
+    /**
+     * Reset the splitter so that it splits the {@code length} chars in
+     * {@code chars} that begin at {@code offset} using the same delimiter and
+     * {@link SplitOption options}.
+     * <p>
+     * This allows a single splitter to be reused for many inputs without
+     * allocating a new instance for each one.
+     * </p>
+     * 
+     * @param chars the array that contains the chars to split
+     * @param offset the index of the first char to split
+     * @param length the number of chars to split
+     */
+    public void reset(char[] chars, int offset, int length) {
+        setSource(chars, offset, length);
+        reset();
+    }
+
+    /**
+     * Reset the splitter so that it splits the UTF-8 encoded bytes that remain
+     * in {@code buffer} using the same delimiter and {@link SplitOption
+     * options}.
+     * 
+     * @param buffer the {@link ByteBuffer} that contains the bytes to split
+     * @throws IllegalArgumentException if the delimiter is not ASCII
+     */
+    public void reset(ByteBuffer buffer) {
+        setSource(buffer);
+        reset();
+    }
+
+    /**
+     * Reset the splitter so that it splits {@code sequence} using the same
+     * delimiter and {@link SplitOption options}.
+     * <p>
+     * This allows a single splitter to be reused for many inputs without
+     * allocating a new instance for each one.
+     * </p>
+     * 
+     * @param sequence the {@link CharSequence} to split
+     */
+    public void reset(CharSequence sequence) {
+        setSource(sequence);
+        reset();
+    }
+
+    /**
+     * Reset the splitter so that it streams the chars that are decoded from
+     * the {@code channel} using the {@code charset}.
+     * 
+     * @param channel the {@link ReadableByteChannel} to split
+     * @param charset the {@link Charset} in which the bytes are encoded
+     */
+    public void reset(ReadableByteChannel channel, Charset charset) {
+        reset(Channels.newReader(channel, charset.newDecoder(), -1));
+    }
+
+    /**
+     * Reset the splitter so that it streams the chars that are read from the
+     * {@code reader}.
+     * 
+     * @param reader the {@link Reader} to split
+     */
+    public void reset(Reader reader) {
+        setSource(reader);
+        reset();
+    }
+
+    /**
+     * Set the {@link TokenInterner} that canonicalizes the tokens that are
+     * returned from {@link #next()}, or {@code null} to always return a new
+     * {@link String}. The interner remains in place if the splitter is
+     * {@link #reset() reset}.
+     * 
+     * @param interner the {@link TokenInterner} to use
+     */
+    public void setInterner(@Nullable TokenInterner interner) {
+        this.interner = interner;
+    }
+
+    /**
+     * Return a {@link Spliterator} over the remaining tokens, which are
+     * consumed from this splitter as the {@link Spliterator} is traversed.
+     * <p>
+     * The {@link Spliterator} is {@link Spliterator#ORDERED ordered} and
+     * {@link Spliterator#NONNULL nonnull}. If the number of remaining tokens
+     * can be determined by counting the delimiters in an in-memory source
+     * (i.e. the splitter isn't aware of quotes or wrappers and neither
+     * {@link SplitOption#SPLIT_ON_NEWLINE} nor
+     * {@link SplitOption#TOKENIZE_PARENTHESIS} is enabled), it is also
+     * {@link Spliterator#SIZED sized}, so a downstream pipeline can presize
+     * the collection that receives the tokens.
+     * </p>
+     * 
+     * @return the {@link Spliterator}
+     */
+    public Spliterator<String> spliterator() {
+        int count = countRemainingTokens();
+        int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+        return count >= 0
+                ? Spliterators.spliterator(this, count, characteristics)
+                : Spliterators.spliteratorUnknownSize(this, characteristics);
+    }
+
+    /**
+     * Return a sequential {@link Stream} of the remaining tokens, which are
+     * consumed from this splitter as the {@link Stream} is traversed.
+     * 
+     * @return the {@link Stream} of tokens
+     * @see #spliterator()
+     */
+    public Stream<String> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Return an array that contains all the tokens after traversing through the
+     * entire split process.
+     * 
+     * @return the tokens
+     */
+    public String[] toArray() {
+        int count = countRemainingTokens();
+        if(count >= 0) {
+            String[] array = new String[count];
+            for (int i = 0; i < count; ++i) {
+                array[i] = next();
+            }
+            return array;
+        }
+        else {
+            ArrayBuilder<String> builder = ArrayBuilder.builder();
+            while (hasNext()) {
+                builder.add(next());
+            }
+            return builder.length() > 0 ? builder.build()
+                    : Array.containing();
+        }
+    }
+
+    /**
+     * Return the position in the source of the first char after
+     * {@code from} (inclusive) and before {@code to} (exclusive) where a new
+     * splitter could start and produce the same tokens that this one would
+     * after that point, or {@code -1} if there is no such position.
+     * <p>
+     * This only considers positions that immediately follow the delimiter, so
+     * it is only correct if every occurrence of the delimiter causes a split
+     * (i.e. the splitter isn't aware of quotes or wrappers). If the delimiter
+     * is a sequence of chars, an occurrence can't span a char that isn't in
+     * the sequence, so occurrences are only considered after such a char,
+     * where they are matched the same way no matter where the splitter began.
+     * </p>
+     * 
+     * @param from the first position to consider
+     * @param to the position where the search ends
+     * @return the safe position
+     */
+    int findSafeStart(int from, int to) {
+        if(delimiterSequence != null) {
+            int width = delimiterSequence.length();
+            int end = to + origin;
+            int i = from + origin;
+            while (i < end) {
+                while (i < end && delimiterSequence.indexOf(charAt(i)) >= 0) {
+                    ++i;
+                }
+                while (i + width <= end && !isDelimiterSequenceAt(i)) {
+                    ++i;
+                }
+                if(i + width < end && isSafeStart(i + width - origin)) {
+                    return i + width - origin;
+                }
+                i += width;
+            }
+            return -1;
+        }
+        for (int i = from + origin - 1; i < to + origin - 1; ++i) {
+            if(i >= offset && isDelimiter(charAt(i))
+                    && isSafeStart(i + 1 - origin)) {
+                return i + 1 - origin;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return {@code true} if {@code position} in the source immediately
+     * follows a delimiter that caused a split and a new splitter that starts
+     * there would produce the same tokens that this one would.
+     * 
+     * @param position a position in the source, as reported by
+     *            {@link Token#offset()}
+     * @return {@code true} if the position is safe
+     */
+    boolean isSafeStart(int position) {
+        int index = position + origin;
+        int width = delimiterSequence != null ? delimiterSequence.length() : 1;
+        int i = index - width;
+        if(i < offset || delimiterWidthAt(charAt(i), i) != width) {
+            return false;
+        }
+        else if(TOKENIZE_PARENTHESIS.isEnabled(this)) {
+            // A run of delimiters after a parenthesis doesn't produce empty
+            // tokens, so it's only safe to start if no parenthesis precedes
+            // the run
+            int j = i - width;
+            while (j >= offset && delimiterWidthAt(charAt(j), j) == width) {
+                i = j;
+                j -= width;
+            }
+            return i == offset
+                    || (charAt(i - 1) != '(' && charAt(i - 1) != ')');
+        }
+        else {
+            return true;
+        }
+    }
+
+    /**
+     * Return the empty tokens at the end of the source instead of dropping
+     * them, so that a record always has the same number of fields whether or
+     * not it is the last one. This takes effect when the splitter is next
+     * {@link #reset() reset}.
+     */
+    void keepTrailingEmptyTokens() {
+        this.keepTrailingEmptyTokens = true;
+    }
+
+    /**
+     * Return the position in the source of the token that would be returned
+     * from {@link #next()}, as reported by {@link Token#offset()}.
+     * 
+     * @return the offset of the next token
+     */
+    int nextOffset() {
+        return nextOffset - origin;
+    }
+
+    /**
+     * Return the position in the source where the token that would be
+     * returned from {@link #next()} begins, before any whitespace or quotes
+     * are dropped from it.
+     * 
+     * @return the raw offset of the next token
+     */
+    int nextRawOffset() {
+        return nextRawOffset - origin;
+    }
+
+    /**
+     * Reset the splitter so that it splits the chars in {@code sequence} that
+     * begin at {@code from}.
+     * 
+     * @param sequence the {@link CharSequence} to split
+     * @param from the position of the first char to split
+     */
+    void reset(CharSequence sequence, int from) {
+        setSource(sequence, from);
+        reset();
+    }
+
+    /**
+     * Return the code point that ends immediately before {@code index} in the
+     * source. If the splitter is {@link #isSplittingBytes() splitting bytes},
+     * the UTF-8 sequence that precedes {@code index} is decoded. Otherwise,
+     * this is the char at {@code index - 1}.
+     * <p>
+     * A subclass can use this method to look behind a char that is passed to
+     * {@link #updateIsReadyToSplit(char)} because the chars in between calls
+     * may be skipped.
+     * </p>
+     * 
+     * @param index an absolute position in the source
+     * @return the preceding code point or {@code -1} if {@code index} is the
+     *         beginning of the source
+     */
+    protected final int codePointBefore(int index) {
+        if(index <= offset) {
+            return -1;
+        }
+        else if(isSplittingBytes()) {
+            return codePointAt(codePointStartBefore(index));
+        }
+        else {
+            return charAt(index - 1);
+        }
+    }
+
+    /**
+     * Before an attempt is made to {@link #setNext() set the next token} do
+     * some analysis on the internal state of the splitter to see if its
+     * actually appropriate to do so. If the next token should not be set,
+     * return {@code false} from this method and also optionally change the
+     * {@link #pos} pointer to rewind the splitter.
+     * 
+     * @return {@code true} if the splitter is indeed ready to set the next
+     *         token
+     */
+    protected boolean confirmSetNext() {
+        return true;
+    }
+
+    /**
+     * Determine, based on state factors that are recorded within the class, if
+     * the splitter is actually ready to split the string on an instance of the
+     * delimiter. By default, this method always returns {@code true}, but a
+     * subclass can use it for awareness of certain conditions that would mean a
+     * string should not be split on an instance of the delimiter (i.e. if the
+     * delimiter occurs within quotes).
+     * 
+     * @return {@code true} if the splitter is actually ready to perform a split
+     */
+    protected boolean isReadyToSplit() {
+        return true;
+    }
+
+    /**
+     * Return {@code true} if the source is a {@link ByteBuffer}, in which case
+     * each char that is passed to {@link #updateIsReadyToSplit(char)} is a
+     * single UTF-8 byte.
+     * 
+     * @return {@code true} if the splitter is traversing bytes
+     */
+    protected final boolean isSplittingBytes() {
+        return octets != null || bytes != null;
+    }
+
+    /**
+     * Look ahead at the char at {@code index} in the source without moving the
+     * splitter. If the source is a stream, more chars are buffered as needed.
+     * <p>
+     * A subclass can use this method to inspect chars beyond {@link #pos} from
+     * {@link #updateIsReadyToSplit(char)} instead of backtracking later on.
+     * </p>
+     * 
+     * @param index an absolute position in the source that is not before the
+     *            start of the current token
+     * @return the char or {@code -1} if {@code index} is beyond the end of the
+     *         source
+     */
+    protected final int peek(int index) {
+        while (index >= limit) {
+            if(!fill()) {
+                return -1;
+            }
+        }
+        return charAt(index);
+    }
+
+    /**
+     * Subtract {@code shift} from each position in the source that was
+     * recorded in {@link #updateIsReadyToSplit(char)}. This method is called
+     * whenever the splitter streams from a {@link Reader} and discards the
+     * chars that it no longer needs, at which point {@link #pos} and every
+     * other position in the source is shifted by the same amount.
+     * 
+     * @param shift the number of chars that were discarded
+     */
+    protected void rebaseIsReadyToSplit(int shift) {/* noop */}
+
+    /**
+     * Clear any state that was accumulated in
+     * {@link #updateIsReadyToSplit(char)} so the splitter can start over from
+     * the beginning of its source. This method is called whenever the splitter
+     * is {@link #reset()}.
+     */
+    protected void resetIsReadyToSplit() {/* noop */}
+
+    /**
+     * Given a character {@code c} that is processed by the splitter, update the
+     * state that determines whether the splitter would actually be ready to
+     * split in the event that it encounters a delimiter character.
+     * <p>
+     * This method is only called for the delimiter, the chars that are
+     * relevant to the enabled {@link SplitOption options} and the
+     * {@link #updateIsReadyToSplitChars()}. Spans of other chars are skipped.
+     * </p>
+     * 
      * @param c
      */
     protected void updateIsReadyToSplit(char c) {/* noop */}
 
+    /**
+     * Return the chars that affect the state that is maintained by
+     * {@link #updateIsReadyToSplit(char)}. A subclass that overrides that
+     * method must override this one too; otherwise, the chars it depends on
+     * may be skipped.
+     * <p>
+     * The returned chars must not depend on the position of the splitter. If
+     * every char must be passed to {@link #updateIsReadyToSplit(char)}, return
+     * {@code null}.
+     * </p>
+     * 
+     * @return the chars that are relevant to {@link #isReadyToSplit()}
+     */
+    protected char[] updateIsReadyToSplitChars() {
+        return NO_CHARS;
+    }
+
+    /**
+     * Move past the token that is about to be returned and find the one after
+     * it.
+     */
+    private void advance() {
+        returnedOffset = nextOffset;
+        if(lastEOL) {
+            lastEOL = false;
+        }
+        if(nextEOL) {
+            lastEOL = true;
+            nextEOL = false;
+        }
+        findNext();
+    }
+
+    /**
+     * Return the char at {@code index} in the source.
+     * 
+     * @param index an absolute position in the source
+     * @return the char
+     */
+    private char charAt(int index) {
+        if(chars != null) {
+            return chars[index - base];
+        }
+        else if(sequence != null) {
+            return sequence.charAt(index);
+        }
+        else {
+            return (char) ((octets != null ? octets[index] : bytes.get(index))
+                    & 0xFF);
+        }
+    }
+
+    /**
+     * Decode the code point of the UTF-8 sequence that begins at
+     * {@code index}. A malformed sequence is decoded as the replacement
+     * character.
+     * 
+     * @param index an absolute position in the source
+     * @return the code point
+     */
+    private int codePointAt(int index) {
+        int b = charAt(index);
+        int length = utf8Length(b);
+        if(length == 1) {
+            return b;
+        }
+        else if(length == 0 || index + length > limit) {
+            return 0xFFFD;
+        }
+        else {
+            int cp = b & (0xFF >> (length + 1));
+            for (int i = 1; i < length; ++i) {
+                int c = charAt(index + i);
+                if((c & 0xC0) != 0x80) {
+                    return 0xFFFD;
+                }
+                cp = (cp << 6) | (c & 0x3F);
+            }
+            return cp;
+        }
+    }
+
+    /**
+     * Return the position where the UTF-8 sequence that ends immediately
+     * before {@code index} begins.
+     * 
+     * @param index an absolute position in the source
+     * @return the start of the preceding sequence
+     */
+    private int codePointStartBefore(int index) {
+        int i = index - 1;
+        while (i > offset && index - i < 4 && (charAt(i) & 0xC0) == 0x80) {
+            --i;
+        }
+        return i;
+    }
+
+    /**
+     * Build the bitmaps that are consulted by {@link #isSplitChar(char)} from
+     * the delimiter, the enabled {@link SplitOption options} and the
+     * {@link #updateIsReadyToSplitChars()}, unless they were precompiled in
+     * the {@link #spec}.
+     */
+    private void compileSplitChars() {
+        if(spec != null) {
+            splitCharsLow = spec.splitCharsLow;
+            splitCharsHigh = spec.splitCharsHigh;
+            nonAsciiSplitChars = spec.nonAsciiSplitChars;
+            return;
+        }
+        splitCharsLow = 0;
+        splitCharsHigh = 0;
+        nonAsciiSplitChars = false;
+        char[] extra = updateIsReadyToSplitChars();
+        if(extra == null) {
+            splitCharsLow = -1L;
+            splitCharsHigh = -1L;
+            nonAsciiSplitChars = true;
+        }
+        else {
+            compileSplitChar(delimiter);
+            if(SPLIT_ON_NEWLINE.isEnabled(this)) {
+                compileSplitChar('\n');
+                compileSplitChar('\r');
+            }
+            if(TOKENIZE_PARENTHESIS.isEnabled(this)) {
+                compileSplitChar('(');
+                compileSplitChar(')');
+            }
+            for (char c : extra) {
+                compileSplitChar(c);
+            }
+        }
+    }
+
+    /**
+     * Mark {@code c} as a split char.
+     * 
+     * @param c
+     */
+    private void compileSplitChar(char c) {
+        if(c < 64) {
+            splitCharsLow |= 1L << c;
+        }
+        else if(c < 128) {
+            splitCharsHigh |= 1L << (c - 64);
+        }
+        else {
+            nonAsciiSplitChars = true;
+        }
+    }
+
+    /**
+     * Return the number of tokens that remain, including the one that would
+     * be returned from {@link #next()}, by counting the delimiters that
+     * follow it. The trailing delimiters are not counted because the empty
+     * tokens after them are dropped.
+     * <p>
+     * If the number of tokens can't be determined without splitting (i.e.
+     * the source is a stream, the splitter is aware of quotes or wrappers or
+     * an option that splits on anything besides the delimiter is enabled),
+     * return {@code -1}.
+     * </p>
+     * 
+     * @return the number of remaining tokens or {@code -1}
+     */
+    private int countRemainingTokens() {
+        if(reader != null || getClass() != StringSplitter.class
+                || SPLIT_ON_NEWLINE.isEnabled(this)
+                || TOKENIZE_PARENTHESIS.isEnabled(this)) {
+            return -1;
+        }
+        else if(nextLength < 0) {
+            return 0;
+        }
+        else {
+            int count = 1;
+            int run = 0;
+            int i = nextRawOffset;
+            while (i < limit) {
+                int width = delimiterWidthAt(charAt(i), i);
+                if(width > 0) {
+                    ++count;
+                    ++run;
+                    i += width;
+                }
+                else {
+                    run = 0;
+                    ++i;
+                }
+            }
+            return count - run;
+        }
+    }
+
+    /**
+     * Return the number of chars in the delimiter that begins with {@code c}
+     * at {@code index}, or {@code 0} if there isn't a delimiter there.
+     * 
+     * @param c the char at {@code index}
+     * @param index an absolute position in the source
+     * @return the width of the delimiter
+     */
+    private int delimiterWidthAt(char c, int index) {
+        if(delimiterSequence != null) {
+            return c == delimiter && isDelimiterSequenceAt(index)
+                    ? delimiterSequence.length()
+                    : 0;
+        }
+        else {
+            return isDelimiter(c) ? 1 : 0;
+        }
+    }
+
+    /**
+     * If the source is a {@link Reader}, read more chars into the buffer so
+     * that the splitter can advance beyond the current {@link #limit}.
+     * <p>
+     * Any chars that precede the earliest position that is still needed are
+     * discarded to make room. The buffer only grows if it is entirely full of
+     * chars that are still needed (i.e. a single token is larger than the
+     * buffer).
+     * </p>
+     * 
+     * @return {@code true} if more chars are available
+     */
+    private boolean fill() {
+        if(reader == null || eof) {
+            return false;
+        }
+        int keep = Math.min(start, returnedOffset);
+        if(nextLength >= 0) {
+            keep = Math.min(keep, nextOffset);
+        }
+        if(keep > base) {
+            System.arraycopy(chars, keep - base, chars, 0, limit - keep);
+            base = keep;
+        }
+        int buffered = limit - base;
+        if(buffered == chars.length) {
+            chars = Arrays.copyOf(chars, chars.length * 2);
+        }
+        try {
+            int read;
+            do {
+                read = reader.read(chars, buffered, chars.length - buffered);
+            }
+            while (read == 0);
+            if(read < 0) {
+                eof = true;
+                return false;
+            }
+            else {
+                limit += read;
+                return true;
+            }
+        }
+        catch (IOException e) {
+            throw CheckedExceptions.throwAsRuntimeException(e);
+        }
+    }
+
     /**
      * Find the next element to return.
      */
     private void findNext() {
+        rebase();
         nextEOL = false;
-        next = null;
+        nextLength = -1;
         boolean resetOverrideEmptyNext = true;
         boolean processOverrideEmptyNext = true;
-        while (pos < chars.length && next == null) {
+        while ((pos < limit || fill()) && nextLength < 0) {
+            int skipped = skip(pos);
+            if(skipped > pos) {
+                // None of the skipped chars are relevant to splitting, but
+                // #ignoreLF must be reset as if each was processed
+                ignoreLF = false;
+                pos = skipped;
+                continue;
+            }
             boolean resetIgnoreLF = true;
-            char c = chars[pos];
+            char c = charAt(pos);
             ++pos;
-            if(c == delimiter && isReadyToSplit()) {
-                setNext();
+            int width = delimiterWidthAt(c, pos - 1);
+            if(width > 0 && isReadyToSplit()) {
+                pos += width - 1;
+                setNext(width);
             }
             else if(SPLIT_ON_NEWLINE.isEnabled(this) && c == '\n'
                     && isReadyToSplit()) {
@@ -309,8 +1699,10 @@ public class StringSplitter {
             else if(TOKENIZE_PARENTHESIS.isEnabled(this)
                     && (c == '(' || c == ')') && isReadyToSplit()) {
                 setNext();
-                if(next.isEmpty()) {
-                    next = AnyStrings.valueOfCached(c);
+                if(nextLength == 0) {
+                    nextOffset = pos - 1;
+                    nextRawOffset = nextOffset;
+                    nextLength = 1;
                     overrideEmptyNext = true;
                     processOverrideEmptyNext = false;
                     resetOverrideEmptyNext = false;
@@ -328,53 +1720,326 @@ public class StringSplitter {
             ignoreLF = resetIgnoreLF ? false : ignoreLF;
             updateIsReadyToSplit(c);
         }
-        if(pos == chars.length && next == null) { // If we reach the end of the
-                                                  // string without finding
-                                                  // the delimiter, then set
-                                                  // next to be all the
-                                                  // remaining chars.
+        if(pos == limit && nextLength < 0) { // If we reach the end of the
+                                           // string without finding the
+                                           // delimiter, then set next to be
+                                           // all the remaining chars.
             if(confirmSetNext()) {
+                nextRawOffset = start;
                 int length = pos - start;
-                if(length == 0) {
-                    next = "";
-                }
-                else {
+                if(length > 0) {
                     length = trim(length);
-                    next = String.valueOf(chars, start, length);
                 }
+                nextOffset = start;
+                nextLength = length;
                 ++pos;
             }
             else {
                 findNext();
             }
         }
-        if(next != null && next.isEmpty()) {
+        if(nextLength == 0 && !keepTrailingEmptyTokens) {
             // For compatibility with String#split, we must detect if an empty
             // token occurs at the end of a string by trying to find the next
-            // occurrence of a non delimiter char.
-            boolean atEnd = true;
-            for (int i = pos; i < chars.length; ++i) {
-                if(chars[i] != delimiter) {
-                    atEnd = false;
-                    break;
-                }
+            // occurrence of a non delimiter char. The search resumes where the
+            // previous one stopped so that a long run of delimiters is only
+            // scanned once.
+            int i;
+            if(pos >= trailingScanFrom && pos <= trailingScan
+                    && (delimiterSequence == null || (pos - trailingScanFrom)
+                            % delimiterSequence.length() == 0)) {
+                i = trailingScan;
+            }
+            else {
+                i = pos;
+                trailingScanFrom = pos;
+            }
+            int width;
+            while ((i < limit || fill())
+                    && (width = delimiterWidthAt(charAt(i), i)) > 0) {
+                i += width;
             }
-            next = atEnd ? null : next;
+            trailingScan = i;
+            nextLength = i < limit ? nextLength : -1;
         }
         // FOR TOKENIZE_PARENTHESIS, we must #overrideEmptyNext if the last
         // next was a single parenthesis in case the next char is a delimiter.
         // This prevents the appearance of having back-to-back delimiters.
         if(overrideEmptyNext && processOverrideEmptyNext) {
-            if(next != null && next.isEmpty()) {
+            if(nextLength == 0) {
                 findNext();
             }
             resetOverrideEmptyNext = true;
         }
         overrideEmptyNext = resetOverrideEmptyNext ? false : overrideEmptyNext;
-        if(next != null && DROP_QUOTES.isEnabled(this)
-                && AnyStrings.isWithinQuotes(next)
-                && this instanceof QuoteAwareStringSplitter) {
-            next = next.substring(1, next.length() - 1);
+        if(nextLength > 2 && this instanceof QuoteAwareStringSplitter
+                && DROP_QUOTES.isEnabled(this) && isWithinQuotes(nextOffset,
+                        nextLength)) {
+            if(isSplittingBytes()) {
+                int first = utf8Length(charAt(nextOffset));
+                int last = nextOffset + nextLength
+                        - codePointStartBefore(nextOffset + nextLength);
+                nextOffset += first;
+                nextLength -= first + last;
+            }
+            else {
+                ++nextOffset;
+                nextLength -= 2;
+            }
+        }
+    }
+
+    /**
+     * Return the token that would be returned from {@link #next()} as a
+     * canonical {@link String} from the {@link #interner}.
+     * 
+     * @return the interned token
+     */
+    private String intern() {
+        if(nextLength > interner.maxLength()) {
+            return substring(nextOffset, nextLength);
+        }
+        else if(isSplittingBytes()) {
+            for (int i = 0; i < nextLength; ++i) {
+                if(charAt(nextOffset + i) >= 0x80) {
+                    // The bytes of a multi-byte sequence aren't the chars of
+                    // the decoded String, so they can't be compared in place
+                    return substring(nextOffset, nextLength);
+                }
+            }
+        }
+        return interner.intern(peekToken());
+    }
+
+    /**
+     * Return {@code true} if every char of the delimiter (or
+     * {@link #delimiters}) is an ASCII char.
+     * 
+     * @return {@code true} if the delimiter is ASCII
+     */
+    private boolean isAsciiDelimiter() {
+        if(delimiterSequence != null) {
+            for (int i = 0; i < delimiterSequence.length(); ++i) {
+                if(delimiterSequence.charAt(i) >= 0x80) {
+                    return false;
+                }
+            }
+        }
+        else if(delimiters != null) {
+            for (char c : delimiters) {
+                if(c >= 0x80) {
+                    return false;
+                }
+            }
+        }
+        return delimiter < 0x80;
+    }
+
+    /**
+     * Return {@code true} if {@code c} is the delimiter or one of the
+     * {@link #delimiters}.
+     * 
+     * @param c
+     * @return {@code true} if {@code c} is a delimiter
+     */
+    private boolean isDelimiter(char c) {
+        if(c == delimiter) {
+            return true;
+        }
+        else if(delimiters == null) {
+            return false;
+        }
+        else if(c < 64) {
+            return (delimitersLow & (1L << c)) != 0;
+        }
+        else if(c < 128) {
+            return (delimitersHigh & (1L << (c - 64))) != 0;
+        }
+        else {
+            for (char delimiter : delimiters) {
+                if(c == delimiter) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Return {@code true} if the {@link #delimiterSequence} occurs at
+     * {@code index}.
+     * 
+     * @param index an absolute position in the source
+     * @return {@code true} if the delimiter sequence is at {@code index}
+     */
+    private boolean isDelimiterSequenceAt(int index) {
+        for (int i = 0; i < delimiterSequence.length(); ++i) {
+            if(peek(index + i) != delimiterSequence.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return {@code true} if {@code c} is a split char, which is any char that
+     * can cause a split or change the state of {@link #isReadyToSplit()}.
+     * Non-split chars can be skipped without being processed individually.
+     * 
+     * @param c
+     * @return {@code true} if {@code c} must be processed
+     */
+    private boolean isSplitChar(char c) {
+        if(c < 64) {
+            return (splitCharsLow & (1L << c)) != 0;
+        }
+        else if(c < 128) {
+            return (splitCharsHigh & (1L << (c - 64))) != 0;
+        }
+        else {
+            return nonAsciiSplitChars;
+        }
+    }
+
+    /**
+     * Return {@code true} if the {@code length} chars in the source that begin
+     * at {@code start} are
+     * {@link AnyStrings#isWithinQuotes(String, Character...) within quotes}.
+     * 
+     * @param start
+     * @param length
+     * @return {@code true} if the range is surrounded by quotes
+     */
+    private boolean isWithinQuotes(int start, int length) {
+        if(length > 2 && isSplittingBytes()) {
+            int first = codePointAt(start);
+            int last = codePointBefore(start + length);
+            if(first <= Character.MAX_VALUE && last <= Character.MAX_VALUE) {
+                first = AnyStrings.replaceUnicodeConfusable((char) first);
+                last = AnyStrings.replaceUnicodeConfusable((char) last);
+                return (first == '"' || first == '\'') && first == last
+                        && length > utf8Length(charAt(start)) + start + length
+                                - codePointStartBefore(start + length);
+            }
+            else {
+                return false;
+            }
+        }
+        else if(length > 2) {
+            char first = AnyStrings.replaceUnicodeConfusable(charAt(start));
+            if(first == '"' || first == '\'') {
+                char last = AnyStrings.replaceUnicodeConfusable(
+                        charAt(start + length - 1));
+                return first == last;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Classify the {@code token} with the {@link #lexer}.
+     * 
+     * @param token the {@link Token} to classify
+     * @return the {@link NumberLexer} classification
+     */
+    private int lex(Token token) {
+        if(lexer == null) {
+            lexer = new NumberLexer();
+        }
+        int type = lexer.lex(token);
+        if(type == NumberLexer.NOT_A_NUMBER && isSplittingBytes()) {
+            for (int i = 0; i < token.length; ++i) {
+                if(charAt(token.offset + i) >= 0x80) {
+                    // A multi-byte sequence must be decoded in case it is a
+                    // non-ASCII digit
+                    return lexer.lex(token.toString());
+                }
+            }
+        }
+        return type;
+    }
+
+    /**
+     * Return a {@link Token} view of the token that would be returned from
+     * {@link #next()}, without consuming it or changing the {@link #token}
+     * that may have been returned from {@link #nextToken()}.
+     * 
+     * @return the view of the next token
+     */
+    private Token lookahead() {
+        if(lookahead == null) {
+            lookahead = new Token();
+        }
+        lookahead.offset = nextOffset;
+        lookahead.length = nextLength;
+        return lookahead;
+    }
+
+    /**
+     * Return an {@link InputMismatchException} that indicates the
+     * {@code token} is not a {@code type}.
+     * 
+     * @param type a description of the expected type
+     * @param token the {@link Token} that couldn't be parsed
+     * @return the exception
+     */
+    private InputMismatchException notA(String type, Token token) {
+        return new InputMismatchException(
+                AnyStrings.format("{} is not a valid {}", token, type));
+    }
+
+    /**
+     * Return the reusable {@link #token} as a view of the token that would be
+     * returned from {@link #next()}, without consuming it.
+     * 
+     * @return the view of the next token
+     * @throws NoSuchElementException if there are no more tokens
+     */
+    private Token peekToken() {
+        if(nextLength < 0) {
+            throw new NoSuchElementException();
+        }
+        else {
+            if(token == null) {
+                token = new Token();
+            }
+            token.offset = nextOffset;
+            token.length = nextLength;
+            return token;
+        }
+    }
+
+    /**
+     * If any chars were discarded from the start of the {@link #reader}
+     * buffer, shift every position in the source back by the same amount so
+     * that the first buffered char is at position {@code 0}.
+     * <p>
+     * The positions are only rebased before the search for the next token
+     * begins, when no position is held in a local variable. This keeps them
+     * within the bounds of the buffer, so they never overflow no matter how
+     * many chars are streamed.
+     * </p>
+     */
+    private void rebase() {
+        int shift = base;
+        if(shift > 0) {
+            discarded += shift;
+            base = 0;
+            limit -= shift;
+            pos -= shift;
+            start -= shift;
+            returnedOffset -= shift;
+            nextOffset -= shift;
+            nextRawOffset -= shift;
+            // These may have been discarded, in which case they are pinned
+            // before the buffer instead of drifting further each time
+            offset = Math.max(offset - shift, -1);
+            trailingScan = Math.max(trailingScan - shift, -1);
+            trailingScanFrom = Math.max(trailingScanFrom - shift, -1);
+            if(token != null) {
+                token.offset -= shift;
+            }
+            rebaseIsReadyToSplit(shift);
         }
     }
 
@@ -394,15 +2059,25 @@ public class StringSplitter {
      * </p>
      */
     private void setNext() {
+        setNext(1);
+    }
+
+    /**
+     * Set the {@link #next} element like {@link #setNext()}, except that the
+     * {@code dropped} chars that precede {@link #pos} are dropped (i.e. the
+     * chars of a multi-char delimiter).
+     * 
+     * @param dropped the number of chars to drop
+     */
+    private void setNext(int dropped) {
         if(confirmSetNext()) {
-            int length = pos - start - 1;
-            if(length == 0) {
-                next = "";
-            }
-            else {
+            nextRawOffset = start;
+            int length = pos - start - dropped;
+            if(length > 0) {
                 length = trim(length);
-                next = String.valueOf(chars, start, length);
             }
+            nextOffset = start;
+            nextLength = length;
             start = pos;
         }
         else {
@@ -410,6 +2085,250 @@ public class StringSplitter {
         }
     }
 
+    /**
+     * Point the splitter at the remaining bytes in {@code buffer}. If possible,
+     * the array that backs the {@code buffer} is traversed directly.
+     * 
+     * @param buffer
+     */
+    private void setSource(ByteBuffer buffer) {
+        Verify.thatArgument(isAsciiDelimiter(),
+                "The delimiter for a ByteBuffer must be ASCII");
+        this.chars = null;
+        this.sequence = null;
+        this.reader = null;
+        this.base = 0;
+        this.discarded = 0;
+        if(buffer.hasArray()) {
+            this.octets = buffer.array();
+            this.bytes = null;
+            this.origin = buffer.arrayOffset();
+            this.offset = origin + buffer.position();
+            this.limit = origin + buffer.limit();
+        }
+        else {
+            this.octets = null;
+            this.bytes = buffer;
+            this.origin = 0;
+            this.offset = buffer.position();
+            this.limit = buffer.limit();
+        }
+        this.pos = offset;
+        this.start = offset;
+        this.trailingScan = offset;
+        this.trailingScanFrom = offset;
+    }
+
+    /**
+     * Point the splitter at the {@code length} chars in {@code chars} that
+     * begin at {@code offset}.
+     * 
+     * @param chars
+     * @param offset
+     * @param length
+     */
+    private void setSource(char[] chars, int offset, int length) {
+        if(offset < 0 || length < 0 || offset + length > chars.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        this.chars = chars;
+        this.sequence = null;
+        this.octets = null;
+        this.bytes = null;
+        this.reader = null;
+        this.base = 0;
+        this.discarded = 0;
+        this.origin = 0;
+        this.offset = offset;
+        this.limit = offset + length;
+        this.pos = offset;
+        this.start = offset;
+        this.trailingScan = offset;
+        this.trailingScanFrom = offset;
+    }
+
+    /**
+     * Point the splitter at {@code sequence}. If possible, the array that backs
+     * the {@code sequence} is traversed directly.
+     * 
+     * @param sequence
+     */
+    private void setSource(CharSequence sequence) {
+        if(sequence instanceof CharBuffer) {
+            CharBuffer buffer = (CharBuffer) sequence;
+            if(buffer.hasArray()) {
+                setSource(buffer.array(),
+                        buffer.arrayOffset() + buffer.position(),
+                        buffer.remaining());
+                this.origin = buffer.arrayOffset();
+            }
+            else {
+                // Index the buffer absolutely, like CharBuffer#get(int)
+                CharBuffer duplicate = buffer.duplicate();
+                duplicate.clear();
+                this.chars = null;
+                this.sequence = duplicate;
+                this.octets = null;
+                this.bytes = null;
+                this.reader = null;
+                this.base = 0;
+                this.discarded = 0;
+                this.origin = 0;
+                this.offset = buffer.position();
+                this.limit = buffer.limit();
+                this.pos = offset;
+                this.start = offset;
+                this.trailingScan = offset;
+                this.trailingScanFrom = offset;
+            }
+        }
+        else {
+            setSource(sequence, 0);
+        }
+    }
+
+    /**
+     * Point the splitter at the chars in {@code sequence} that begin at
+     * {@code from}.
+     * 
+     * @param sequence
+     * @param from
+     */
+    private void setSource(CharSequence sequence, int from) {
+        if(from < 0 || from > sequence.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        this.chars = null;
+        this.sequence = sequence;
+        this.octets = null;
+        this.bytes = null;
+        this.reader = null;
+        this.base = 0;
+        this.discarded = 0;
+        this.origin = 0;
+        this.offset = from;
+        this.limit = sequence.length();
+        this.pos = from;
+        this.start = from;
+        this.trailingScan = from;
+        this.trailingScanFrom = from;
+    }
+
+    /**
+     * Point the splitter at the {@code reader}, whose chars will be streamed
+     * into a sliding buffer as the splitter advances.
+     * 
+     * @param reader
+     */
+    private void setSource(Reader reader) {
+        this.chars = new char[STREAM_BUFFER_SIZE];
+        this.sequence = null;
+        this.octets = null;
+        this.bytes = null;
+        this.reader = reader;
+        this.eof = false;
+        this.base = 0;
+        this.discarded = 0;
+        this.origin = 0;
+        this.offset = 0;
+        this.limit = 0;
+        this.pos = 0;
+        this.start = 0;
+        this.trailingScan = 0;
+        this.trailingScanFrom = 0;
+    }
+
+    /**
+     * Return the position of the first {@link #isSplitChar(char) split char}
+     * that is buffered at or after {@code from}, or {@link #limit} if there is
+     * none.
+     * 
+     * @param from an absolute position in the source
+     * @return the position of the next split char
+     */
+    private int skip(int from) {
+        int i = from;
+        if(chars != null) {
+            char[] chars = this.chars;
+            int base = this.base;
+            while (i < limit && !isSplitChar(chars[i - base])) {
+                ++i;
+            }
+        }
+        else if(octets != null) {
+            byte[] octets = this.octets;
+            while (i < limit && !isSplitChar((char) (octets[i] & 0xFF))) {
+                ++i;
+            }
+        }
+        else {
+            while (i < limit && !isSplitChar(charAt(i))) {
+                ++i;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Return a {@link String} that contains the {@code length} chars in the
+     * source that begin at {@code start}.
+     * 
+     * @param start
+     * @param length
+     * @return the substring
+     */
+    private String substring(int start, int length) {
+        if(length == 0) {
+            return "";
+        }
+        else if(length == 1 && charAt(start) < 0x80) {
+            return AnyStrings.valueOfCached(charAt(start));
+        }
+        else if(octets != null) {
+            return new String(octets, start, length, StandardCharsets.UTF_8);
+        }
+        else if(bytes != null) {
+            byte[] utf8 = new byte[length];
+            for (int i = 0; i < length; ++i) {
+                utf8[i] = bytes.get(start + i);
+            }
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+        else if(length == 1) {
+            return AnyStrings.valueOfCached(charAt(start));
+        }
+        else if(chars != null) {
+            return String.valueOf(chars, start - base, length);
+        }
+        else if(sequence instanceof String) {
+            return ((String) sequence).substring(start, start + length);
+        }
+        else {
+            return sequence.subSequence(start, start + length).toString();
+        }
+    }
+
+    /**
+     * Return the {@link Boolean} that the {@code token} represents according
+     * to the rules of {@link AnyStrings#tryParseBoolean(String)}, or
+     * {@code null} if it isn't a {@code boolean}.
+     * 
+     * @param token the {@link Token} to compare
+     * @return the {@link Boolean} or {@code null}
+     */
+    @Nullable
+    private Boolean toBoolean(Token token) {
+        if(token.contentEqualsIgnoreCase("true")) {
+            return true;
+        }
+        else if(token.contentEqualsIgnoreCase("false")) {
+            return false;
+        }
+        else {
+            return null;
+        }
+    }
+
     /**
      * Given the desired {@code length} for the {@link #next} token, perform any
      * trimming of leading and trailing white space if
@@ -425,12 +2344,26 @@ public class StringSplitter {
      * @return the appropriate length after the trimming
      */
     private int trim(int length) {
-        if(SplitOption.TRIM_WHITESPACE.isEnabled(this)) {
-            while (Character.isWhitespace(chars[start]) && length > 1) {
+        if(SplitOption.TRIM_WHITESPACE.isEnabled(this) && isSplittingBytes()) {
+            int width;
+            while (length > (width = utf8Length(charAt(start))) && width > 0
+                    && Character.isWhitespace(codePointAt(start))) {
+                start += width;
+                length -= width;
+            }
+            int end = start + length;
+            while (length > (width = end - codePointStartBefore(end))
+                    && Character.isWhitespace(codePointBefore(end))) {
+                end -= width;
+                length -= width;
+            }
+        }
+        else if(SplitOption.TRIM_WHITESPACE.isEnabled(this)) {
+            while (Character.isWhitespace(charAt(start)) && length > 1) {
                 start++;
                 length--;
             }
-            while (Character.isWhitespace(chars[(start + length) - 1])
+            while (Character.isWhitespace(charAt((start + length) - 1))
                     && length > 1) {
                 length--;
             }
@@ -438,4 +2371,177 @@ public class StringSplitter {
         return length;
     }
 
-}
\ No newline at end of file
+    /**
+     * Return the number of bytes in the UTF-8 sequence that begins with the
+     * lead byte {@code b}, or {@code 0} if {@code b} cannot begin a sequence.
+     * 
+     * @param b
+     * @return the length of the sequence
+     */
+    private static int utf8Length(int b) {
+        if(b < 0x80) {
+            return 1;
+        }
+        else if((b & 0xE0) == 0xC0) {
+            return 2;
+        }
+        else if((b & 0xF0) == 0xE0) {
+            return 3;
+        }
+        else if((b & 0xF8) == 0xF0) {
+            return 4;
+        }
+        else {
+            return 0;
+        }
+    }
+
+    /**
+     * A reusable, read-only view of a single token within the source of a
+     * {@link StringSplitter}.
+     * <p>
+     * A {@link Token} does not copy any chars. It is only valid until the
+     * splitter that produced it moves on to the next token, so call
+     * {@link #toString()} if a token must be retained.
+     * </p>
+     * <p>
+     * If the splitter's source is a {@link ByteBuffer}, a {@link Token} is a
+     * view of UTF-8 bytes: each byte is presented as a single char and only
+     * {@link #toString()} decodes them.
+     * </p>
+     * 
+     * @author Jeff Nelson
+     */
+    public final class Token implements CharSequence {
+
+        /**
+         * The number of chars in the token.
+         */
+        private int length;
+
+        /**
+         * The position of the token's first char in the source.
+         */
+        private int offset;
+
+        /**
+         * Construct a new instance.
+         */
+        private Token() {/* no-init */}
+
+        @Override
+        public char charAt(int index) {
+            if(index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            return StringSplitter.this.charAt(offset + index);
+        }
+
+        /**
+         * Return {@code true} if this token contains exactly the same chars as
+         * {@code sequence}.
+         * 
+         * @param sequence the {@link CharSequence} to compare
+         * @return {@code true} if the contents are equal
+         */
+        public boolean contentEquals(CharSequence sequence) {
+            if(isSplittingBytes()) {
+                for (int i = 0; i < length; ++i) {
+                    char c = StringSplitter.this.charAt(offset + i);
+                    if(c >= 0x80) {
+                        // Multi-byte sequences must be decoded to compare
+                        return toString().contentEquals(sequence);
+                    }
+                    else if(i >= sequence.length() || c != sequence.charAt(i)) {
+                        return false;
+                    }
+                }
+                return sequence.length() == length;
+            }
+            else if(sequence.length() != length) {
+                return false;
+            }
+            else {
+                for (int i = 0; i < length; ++i) {
+                    if(StringSplitter.this.charAt(offset + i) != sequence
+                            .charAt(i)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+
+        /**
+         * Return {@code true} if this token contains the same chars as
+         * {@code sequence}, ignoring case in the same way as
+         * {@link String#equalsIgnoreCase(String)}.
+         * 
+         * @param sequence the {@link CharSequence} to compare
+         * @return {@code true} if the contents are equal, ignoring case
+         */
+        public boolean contentEqualsIgnoreCase(CharSequence sequence) {
+            if(isSplittingBytes()) {
+                for (int i = 0; i < length; ++i) {
+                    if(StringSplitter.this.charAt(offset + i) >= 0x80) {
+                        // Multi-byte sequences must be decoded to compare
+                        return toString()
+                                .equalsIgnoreCase(sequence.toString());
+                    }
+                }
+            }
+            if(sequence.length() != length) {
+                return false;
+            }
+            else {
+                for (int i = 0; i < length; ++i) {
+                    char a = StringSplitter.this.charAt(offset + i);
+                    char b = sequence.charAt(i);
+                    if(a != b) {
+                        a = Character.toUpperCase(a);
+                        b = Character.toUpperCase(b);
+                        if(a != b && Character.toLowerCase(a) != Character
+                                .toLowerCase(b)) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        /**
+         * Return the index of this token's first char within the source that
+         * was given to the splitter (i.e. the index in the {@code char} array
+         * or the {@link CharSequence}). If the source is a {@link ByteBuffer},
+         * this is the index of the token's first byte. If the source is a
+         * stream, this is the number of chars that were read before the token,
+         * which may exceed {@link Integer#MAX_VALUE}.
+         * 
+         * @return the offset of the token
+         */
+        public long offset() {
+            return discarded + offset - origin;
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if(start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException();
+            }
+            return substring(offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return substring(offset, length);
+        }
+
+    }
+
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * A {@link Spliterator} over the tokens that a {@link SplitterSpec} produces
+ * for an in-memory input, which can be split into chunks that are tokenized in
+ * parallel.
+ * <p>
+ * Each chunk begins at a safe position: one that immediately follows a
+ * delimiter that causes a split, so a new splitter that starts there produces
+ * exactly the same tokens as a single splitter that traverses the entire
+ * input. Each chunk's splitter can see the rest of the input, so a chunk
+ * reports each token that begins within it and the decision to drop trailing
+ * empty tokens is made the same way for all chunks.
+ * </p>
+ * <p>
+ * When the spec isn't aware of quotes or wrappers, whether a delimiter causes
+ * a split doesn't depend on what precedes it, so a safe position is found by
+ * looking at the chars near the middle of the chunk when it is split.
+ * Otherwise, a chunk is scanned from its beginning (which is safe) when it is
+ * first split, without materializing any tokens, until a safe position is
+ * found in its second half. The safe positions that are about
+ * {@link #CHUNK_SIZE} chars apart in the first half are handed to the prefix,
+ * so it can be split further without another scan, and the rest of the chunk
+ * isn't scanned until it is split again. So each char is scanned at most once
+ * and the scans of different chunks run in parallel.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+final class StringSplitterSpliterator implements Spliterator<String> {
+
+    /**
+     * The approximate distance between the safe positions that are recorded
+     * by a scan and the smallest chunk that is split further.
+     */
+    static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * The number of chars at the beginning of the input whose tokens are
+     * counted to {@link #estimateSize() estimate} the number of tokens in
+     * each chunk.
+     */
+    static final int SAMPLE_SIZE = 1 << 12;
+
+    /**
+     * Return the number of tokens per char among the tokens that begin
+     * before {@code end}.
+     * 
+     * @param splitter a splitter that begins at {@code lo}
+     * @param lo the position where the sample begins
+     * @param end the position where the sample ends (exclusive)
+     * @return the density of tokens in the sample
+     */
+    private static double density(StringSplitter splitter, int lo, int end) {
+        int count = 0;
+        while (splitter.hasNext() && splitter.nextRawOffset() < end) {
+            splitter.nextToken();
+            ++count;
+        }
+        return end > lo ? (double) count / (end - lo) : 0;
+    }
+
+    /**
+     * The safe positions within this chunk, in order, that were recorded by a
+     * scan, or {@code null} if the chunk hasn't been scanned or safe positions
+     * are found {@link #local locally}.
+     */
+    private int[] boundaries;
+
+    /**
+     * The estimated number of tokens per char.
+     */
+    private final double density;
+
+    /**
+     * The index of the first of the {@link #boundaries} that falls within this
+     * chunk.
+     */
+    private int first;
+
+    /**
+     * The position where this chunk ends (exclusive); the beginning of the
+     * next chunk.
+     */
+    private final int hi;
+
+    /**
+     * The index after the last of the {@link #boundaries} that falls within
+     * this chunk.
+     */
+    private int last;
+
+    /**
+     * The position where this chunk begins.
+     */
+    private int lo;
+
+    /**
+     * A flag that indicates whether safe positions can be found by looking
+     * at the chars around them instead of scanning the chunk.
+     */
+    private final boolean local;
+
+    /**
+     * The splitter that traverses this chunk, which is created when the
+     * traversal starts.
+     */
+    private StringSplitter splitter;
+
+    /**
+     * A function that returns a new splitter that is bound to the input from
+     * the given position until the end.
+     */
+    private final IntFunction<StringSplitter> splitterAt;
+
+    /**
+     * Construct a new instance that covers the input between {@code lo} and
+     * {@code hi}.
+     * 
+     * @param spec the {@link SplitterSpec} to apply
+     * @param splitterAt a function that returns a new splitter that is bound
+     *            to the input from the given position until the end
+     * @param lo the position where the input begins
+     * @param hi the position where the input ends (exclusive)
+     */
+    StringSplitterSpliterator(SplitterSpec spec,
+            IntFunction<StringSplitter> splitterAt, int lo, int hi) {
+        this(splitterAt, !spec.quoteAware && !spec.wrapped,
+                density(splitterAt.apply(lo), lo,
+                        Math.min(hi, lo + SAMPLE_SIZE)),
+                null, 0, 0, lo, hi);
+    }
+
+    /**
+     * Construct a new instance that covers the input between {@code lo} and
+     * {@code hi}.
+     * 
+     * @param splitterAt the function that returns a new splitter that is
+     *            bound to the input from the given position until the end
+     * @param local a flag that indicates whether safe positions can be found
+     *            locally
+     * @param density the estimated number of tokens per char
+     * @param boundaries the safe positions that were recorded by a scan, if
+     *            any
+     * @param first the index of the first of the {@code boundaries} that
+     *            falls within the chunk
+     * @param last the index after the last of the {@code boundaries} that
+     *            falls within the chunk
+     * @param lo the position where the chunk begins
+     * @param hi the position where the chunk ends (exclusive)
+     */
+    private StringSplitterSpliterator(IntFunction<StringSplitter> splitterAt,
+            boolean local, double density, int[] boundaries, int first,
+            int last, int lo, int hi) {
+        this.splitterAt = splitterAt;
+        this.local = local;
+        this.density = density;
+        this.boundaries = boundaries;
+        this.first = first;
+        this.last = last;
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    @Override
+    public long estimateSize() {
+        int from = lo;
+        if(splitter != null) {
+            from = splitter.hasNext() ? Math.min(splitter.nextRawOffset(), hi)
+                    : hi;
+        }
+        return (long) Math.ceil((hi - from) * density);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        StringSplitter splitter = splitter();
+        while (splitter.hasNext() && splitter.nextRawOffset() < hi) {
+            action.accept(splitter.next());
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        StringSplitter splitter = splitter();
+        if(splitter.hasNext() && splitter.nextRawOffset() < hi) {
+            action.accept(splitter.next());
+            return true;
+        }
+        else {
+            return false;
+        }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        if(splitter != null || hi - lo < 2 * CHUNK_SIZE) {
+            // The traversal of this chunk has started or the chunk is too
+            // small to be worth splitting
+            return null;
+        }
+        int mid = lo + ((hi - lo) >>> 1);
+        if(local) {
+            int position = splitterAt.apply(lo).findSafeStart(mid, hi);
+            return position > lo && position < hi ? split(position, 0, 0)
+                    : null;
+        }
+        else if(boundaries == null) {
+            // Record the safe positions that are about CHUNK_SIZE chars apart
+            // until one is found in the second half of the chunk
+            int[] recorded = new int[16];
+            int count = 0;
+            int target = lo + CHUNK_SIZE;
+            StringSplitter scanner = splitterAt.apply(lo);
+            while (scanner.hasNext()) {
+                int position = scanner.nextRawOffset();
+                if(position >= hi) {
+                    break;
+                }
+                else if(position >= target && scanner.isSafeStart(position)) {
+                    if(position >= mid) {
+                        // The rest of the chunk is scanned when it is split
+                        // again
+                        boundaries = recorded;
+                        StringSplitterSpliterator prefix = split(position, 0,
+                                count);
+                        boundaries = null;
+                        return prefix;
+                    }
+                    if(count == recorded.length) {
+                        recorded = Arrays.copyOf(recorded, count * 2);
+                    }
+                    recorded[count++] = position;
+                    target = position + CHUNK_SIZE;
+                }
+                scanner.nextToken();
+            }
+            boundaries = recorded;
+            first = 0;
+            last = count;
+        }
+        if(first == last) {
+            return null;
+        }
+        else {
+            int index = (first + last) >>> 1;
+            StringSplitterSpliterator prefix = split(boundaries[index], first,
+                    index);
+            first = index + 1;
+            return prefix;
+        }
+    }
+
+    /**
+     * Return a new instance that covers this chunk up to the safe
+     * {@code position}, which becomes the beginning of this chunk.
+     * 
+     * @param position the safe position at which to split
+     * @param first the index of the first of the {@link #boundaries} that
+     *            falls within the prefix
+     * @param last the index after the last of the {@link #boundaries} that
+     *            falls within the prefix
+     * @return the prefix
+     */
+    private StringSplitterSpliterator split(int position, int first,
+            int last) {
+        StringSplitterSpliterator prefix = new StringSplitterSpliterator(
+                splitterAt, local, density, boundaries, first, last, lo,
+                position);
+        lo = position;
+        return prefix;
+    }
+
+    /**
+     * Return the {@link #splitter} for this chunk, creating it if necessary.
+     * 
+     * @return the splitter
+     */
+    private StringSplitter splitter() {
+        if(splitter == null) {
+            splitter = splitterAt.apply(lo);
+        }
+        return splitter;
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2013-2020 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+/**
+ * A factory that gives each thread its own {@link StringSplitter} and
+ * {@link StringSplitter#reset(CharSequence) rebinds} it to each input that
+ * the thread wants to split.
+ * <p>
+ * This is useful for hot loops that split many short strings (i.e. lines in a
+ * file) because no splitter needs to be allocated once a thread has split its
+ * first input.
+ * </p>
+ * <p>
+ * <h2>Usage</h2>
+ * 
+ * <pre>
+ * ThreadLocalStringSplitter&lt;StringSplitter&gt; splitters = ThreadLocalStringSplitter
+ *         .create(',', SplitOption.TRIM_WHITESPACE);
+ * for (String line : lines) {
+ *     StringSplitter splitter = splitters.split(line);
+ *     while (splitter.hasNext()) {
+ *         String next = splitter.next();
+ *     }
+ * }
+ * </pre>
+ * 
+ * </p>
+ * <p>
+ * The splitter that is returned from {@link #split(CharSequence)} is reused by
+ * the calling thread, so it must be fully consumed before the same thread
+ * splits another input.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+public final class ThreadLocalStringSplitter<T extends StringSplitter> {
+
+    /**
+     * Return a {@link ThreadLocalStringSplitter} that splits on the
+     * {@code delimiter} using a {@link StringSplitter}.
+     * 
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     * @return the {@link ThreadLocalStringSplitter}
+     */
+    public static ThreadLocalStringSplitter<StringSplitter> create(
+            char delimiter, SplitOption... options) {
+        return withInitial(() -> new StringSplitter("", delimiter, options));
+    }
+
+    /**
+     * Return a {@link ThreadLocalStringSplitter} that splits according to the
+     * {@code spec}.
+     * 
+     * @param spec the {@link SplitterSpec}
+     * @return the {@link ThreadLocalStringSplitter}
+     */
+    public static ThreadLocalStringSplitter<StringSplitter> create(
+            SplitterSpec spec) {
+        return withInitial(spec::newSplitter);
+    }
+
+    /**
+     * Return a {@link ThreadLocalStringSplitter} that uses the
+     * {@code supplier} to create the splitter for each thread. The supplied
+     * splitter may be bound to any input (i.e. an empty string) because it is
+     * always {@link StringSplitter#reset(CharSequence) reset} before use.
+     * 
+     * @param supplier a {@link Supplier} for the splitter of each thread
+     * @return the {@link ThreadLocalStringSplitter}
+     */
+    public static <T extends StringSplitter> ThreadLocalStringSplitter<T> withInitial(
+            Supplier<T> supplier) {
+        return new ThreadLocalStringSplitter<>(supplier);
+    }
+
+    /**
+     * The splitter that belongs to each thread.
+     */
+    private final ThreadLocal<T> splitters;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param supplier
+     */
+    private ThreadLocalStringSplitter(Supplier<T> supplier) {
+        this.splitters = ThreadLocal.withInitial(supplier);
+    }
+
+    /**
+     * Return the calling thread's splitter after rebinding it to split the
+     * UTF-8 encoded bytes that remain in {@code buffer}.
+     * 
+     * @param buffer the {@link ByteBuffer} that contains the bytes to split
+     * @return the splitter
+     */
+    public T split(ByteBuffer buffer) {
+        T splitter = splitters.get();
+        splitter.reset(buffer);
+        return splitter;
+    }
+
+    /**
+     * Return the calling thread's splitter after rebinding it to split the
+     * {@code length} chars in {@code chars} that begin at {@code offset}.
+     * 
+     * @param chars the array that contains the chars to split
+     * @param offset the index of the first char to split
+     * @param length the number of chars to split
+     * @return the splitter
+     */
+    public T split(char[] chars, int offset, int length) {
+        T splitter = splitters.get();
+        splitter.reset(chars, offset, length);
+        return splitter;
+    }
+
+    /**
+     * Return the calling thread's splitter after rebinding it to split
+     * {@code sequence}.
+     * 
+     * @param sequence the {@link CharSequence} to split
+     * @return the splitter
+     */
+    public T split(CharSequence sequence) {
+        T splitter = splitters.get();
+        splitter.reset(sequence);
+        return splitter;
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+/**
+ * A bounded cache of canonical {@link String} instances for the tokens that
+ * are produced by a {@link StringSplitter}.
+ * <p>
+ * Columns with few distinct values (i.e. country codes, status enums or
+ * booleans) produce many equal tokens. When a {@link TokenInterner} is
+ * {@link StringSplitter#setInterner(TokenInterner) plugged into} a splitter,
+ * the chars of each short token are hashed and compared in place and, if an
+ * equal {@link String} is cached, that instance is returned without
+ * allocating a new one.
+ * </p>
+ * <p>
+ * The cache is a fixed size, direct-mapped table: each token maps to a single
+ * slot and a miss replaces whatever was there, so memory is bounded no matter
+ * how many distinct tokens there are. Tokens that are longer than the
+ * {@link #maxLength() max length} are never cached because they are unlikely
+ * to repeat and are expensive to compare. The {@link #hits()} and
+ * {@link #misses()} are counted so the {@link #capacity()} and max length can
+ * be tuned for a workload.
+ * </p>
+ * <p>
+ * An instance is not thread-safe, so it should be confined to the same thread
+ * as the splitter that uses it.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+public final class TokenInterner {
+
+    /**
+     * The default number of slots in the cache.
+     */
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The default length of the longest token that is cached.
+     */
+    private static final int DEFAULT_MAX_LENGTH = 32;
+
+    /**
+     * The hash of the {@link String} in each of the {@link #strings slots}.
+     */
+    private final int[] hashes;
+
+    /**
+     * The number of times that a cached {@link String} was returned.
+     */
+    private long hits = 0;
+
+    /**
+     * The mask that maps a hash to a slot.
+     */
+    private final int mask;
+
+    /**
+     * The length of the longest token that is cached.
+     */
+    private final int maxLength;
+
+    /**
+     * The number of times that a token that could have been cached was not.
+     */
+    private long misses = 0;
+
+    /**
+     * The canonical {@link String} in each slot, or {@code null} if the slot
+     * is empty.
+     */
+    private final String[] strings;
+
+    /**
+     * Construct a new instance with the default {@link #capacity()} and
+     * {@link #maxLength()}.
+     */
+    public TokenInterner() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param capacity the number of slots in the cache, which is rounded up
+     *            to a power of two
+     * @param maxLength the length of the longest token to cache
+     * @throws IllegalArgumentException if {@code capacity} isn't between 1
+     *             and 2<sup>30</sup> or {@code maxLength} is negative
+     */
+    public TokenInterner(int capacity, int maxLength) {
+        Verify.thatArgument(capacity > 0 && capacity <= 1 << 30,
+                "The capacity must be between 1 and {}", 1 << 30);
+        Verify.thatArgument(maxLength >= 0,
+                "The max length cannot be negative");
+        int size = Integer.highestOneBit(capacity);
+        if(size < capacity) {
+            size <<= 1;
+        }
+        this.hashes = new int[size];
+        this.strings = new String[size];
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Return the number of slots in the cache.
+     * 
+     * @return the capacity
+     */
+    public int capacity() {
+        return strings.length;
+    }
+
+    /**
+     * Remove all the cached {@link String Strings} and reset the statistics.
+     */
+    public void clear() {
+        for (int i = 0; i < strings.length; ++i) {
+            strings[i] = null;
+        }
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Return the fraction of the tokens that could have been cached for which
+     * a cached {@link String} was returned, or {@code 0} if there were none.
+     * 
+     * @return the hit rate
+     */
+    public double hitRate() {
+        long total = hits + misses;
+        return total > 0 ? (double) hits / total : 0;
+    }
+
+    /**
+     * Return the number of times that a cached {@link String} was returned.
+     * 
+     * @return the number of hits
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * Return a {@link String} with the same chars as {@code sequence}. If an
+     * equal {@link String} is cached, that instance is returned. Otherwise, a
+     * new one is created and, if it isn't longer than the
+     * {@link #maxLength()}, cached in place of the {@link String} that
+     * previously occupied its slot.
+     * 
+     * @param sequence the chars to intern
+     * @return the canonical {@link String}
+     */
+    public String intern(CharSequence sequence) {
+        int length = sequence.length();
+        if(length > maxLength) {
+            return sequence.toString();
+        }
+        int hash = 0;
+        for (int i = 0; i < length; ++i) {
+            hash = 31 * hash + sequence.charAt(i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String string = strings[slot];
+        if(string != null && hashes[slot] == hash
+                && string.length() == length) {
+            int i = 0;
+            while (i < length && string.charAt(i) == sequence.charAt(i)) {
+                ++i;
+            }
+            if(i == length) {
+                ++hits;
+                return string;
+            }
+        }
+        ++misses;
+        string = sequence.toString();
+        strings[slot] = string;
+        hashes[slot] = hash;
+        return string;
+    }
+
+    /**
+     * Return the length of the longest token that is cached.
+     * 
+     * @return the max length
+     */
+    public int maxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Return the number of times that a token that could have been cached
+     * was not.
+     * 
+     * @return the number of misses
+     */
+    public long misses() {
+        return misses;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenInterner{capacity=" + capacity() + ", maxLength="
+                + maxLength + ", hits=" + hits + ", misses=" + misses + "}";
+    }
+
+}
@@ -15,6 +15,11 @@
  */
 package com.cinchapi.common.base;
 
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+
 /**
  * A {@link StringSplitter} that is aware of a "wrapper" (e.g. a beginning and
  * end character group that captures a sequence of characters that should not be
@@ -95,6 +100,12 @@ public class WrapperAwareStringSplitter extends StringSplitter {
      */
     private final char wraperEnd;
 
+    /**
+     * The {@link #wrapperStart} and {@link #wraperEnd} chars, which are
+     * returned from {@link #updateIsReadyToSplitChars()}.
+     */
+    private final char[] wrapperChars;
+
     /**
      * The number of times the {@link #wrapperEnd} character has occurred in
      * the string. The value of {@link #wrapperStartCount} and
@@ -114,6 +125,7 @@ public class WrapperAwareStringSplitter extends StringSplitter {
         Verify.thatArgument(wrapperStart != wrapperEnd);
         this.wrapperStart = wrapperStart;
         this.wraperEnd = wrapperEnd;
+        this.wrapperChars = new char[] { wrapperStart, wrapperEnd };
         reset();
     }
 
@@ -129,6 +141,7 @@ public class WrapperAwareStringSplitter extends StringSplitter {
         Verify.thatArgument(wrapperStart != wrapperEnd);
         this.wrapperStart = wrapperStart;
         this.wraperEnd = wrapperEnd;
+        this.wrapperChars = new char[] { wrapperStart, wrapperEnd };
         reset();
     }
 
@@ -146,6 +159,106 @@ public class WrapperAwareStringSplitter extends StringSplitter {
         Verify.thatArgument(wrapperStart != wrapperEnd);
         this.wrapperStart = wrapperStart;
         this.wraperEnd = wrapperEnd;
+        this.wrapperChars = new char[] { wrapperStart, wrapperEnd };
+        reset();
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param chars the array that contains the chars to split
+     * @param offset the index of the first char to split
+     * @param length the number of chars to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public WrapperAwareStringSplitter(char wrapperStart, char wrapperEnd,
+            char[] chars, int offset, int length, char delimiter,
+            SplitOption... options) {
+        super(chars, offset, length, delimiter, options);
+        Verify.thatArgument(wrapperStart != wrapperEnd);
+        this.wrapperStart = wrapperStart;
+        this.wraperEnd = wrapperEnd;
+        this.wrapperChars = new char[] { wrapperStart, wrapperEnd };
+        reset();
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param sequence the {@link CharSequence} to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public WrapperAwareStringSplitter(char wrapperStart, char wrapperEnd,
+            CharSequence sequence, char delimiter, SplitOption... options) {
+        super(sequence, delimiter, options);
+        Verify.thatArgument(wrapperStart != wrapperEnd);
+        this.wrapperStart = wrapperStart;
+        this.wraperEnd = wrapperEnd;
+        this.wrapperChars = new char[] { wrapperStart, wrapperEnd };
+        reset();
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param buffer the {@link ByteBuffer} that contains the UTF-8 bytes to
+     *            split
+     * @param delimiter the delimiter upon which to split; must be an ASCII
+     *            character
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public WrapperAwareStringSplitter(char wrapperStart, char wrapperEnd,
+            ByteBuffer buffer, char delimiter, SplitOption... options) {
+        super(buffer, delimiter, options);
+        Verify.thatArgument(wrapperStart != wrapperEnd);
+        Verify.thatArgument(wrapperStart < 0x80 && wrapperEnd < 0x80,
+                "The wrappers for a ByteBuffer must be ASCII characters");
+        this.wrapperStart = wrapperStart;
+        this.wraperEnd = wrapperEnd;
+        this.wrapperChars = new char[] { wrapperStart, wrapperEnd };
+        reset();
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param channel the {@link ReadableByteChannel} to split
+     * @param charset the {@link Charset} in which the bytes are encoded
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public WrapperAwareStringSplitter(char wrapperStart, char wrapperEnd,
+            ReadableByteChannel channel, Charset charset, char delimiter,
+            SplitOption... options) {
+        super(channel, charset, delimiter, options);
+        Verify.thatArgument(wrapperStart != wrapperEnd);
+        this.wrapperStart = wrapperStart;
+        this.wraperEnd = wrapperEnd;
+        this.wrapperChars = new char[] { wrapperStart, wrapperEnd };
+        reset();
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param reader the {@link Reader} to split
+     * @param delimiter the delimiter upon which to split
+     * @param options an array of {@link SplitOption options} to supplement the
+     *            split behaviour
+     */
+    public WrapperAwareStringSplitter(char wrapperStart, char wrapperEnd,
+            Reader reader, char delimiter, SplitOption... options) {
+        super(reader, delimiter, options);
+        Verify.thatArgument(wrapperStart != wrapperEnd);
+        this.wrapperStart = wrapperStart;
+        this.wraperEnd = wrapperEnd;
+        this.wrapperChars = new char[] { wrapperStart, wrapperEnd };
         reset();
     }
 
@@ -162,6 +275,20 @@ public class WrapperAwareStringSplitter extends StringSplitter {
         Verify.thatArgument(wrapperStart != wrapperEnd);
         this.wrapperStart = wrapperStart;
         this.wraperEnd = wrapperEnd;
+        this.wrapperChars = new char[] { wrapperStart, wrapperEnd };
+        reset();
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param spec the {@link SplitterSpec}
+     */
+    WrapperAwareStringSplitter(SplitterSpec spec) {
+        super(spec);
+        this.wrapperStart = spec.wrapperStart;
+        this.wraperEnd = spec.wrapperEnd;
+        this.wrapperChars = new char[] { wrapperStart, wraperEnd };
         reset();
     }
 
@@ -170,6 +297,12 @@ public class WrapperAwareStringSplitter extends StringSplitter {
         return wrapperStartCount == wrapperEndCount;
     }
 
+    @Override
+    protected void resetIsReadyToSplit() {
+        wrapperStartCount = 0;
+        wrapperEndCount = 0;
+    }
+
     @Override
     protected void updateIsReadyToSplit(char c) {
         if(c == wrapperStart) {
@@ -180,4 +313,11 @@ public class WrapperAwareStringSplitter extends StringSplitter {
         }
     }
 
+    @Override
+    protected char[] updateIsReadyToSplitChars() {
+        // The wrapper chars aren't assigned while the super constructor runs
+        return wrapperChars != null ? wrapperChars
+                : super.updateIsReadyToSplitChars();
+    }
+
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.util.Arrays;
+
+/**
+ * The state of any number of "wrapper" pairs (e.g. <code>{}</code>,
+ * {@code []} and {@code ()}) that may be nested within one another, which is
+ * shared by the splitters that track them.
+ * <p>
+ * Each start char pushes its pair onto a stack and each end char pops the
+ * stack if it closes the wrapper that was opened most recently; otherwise, it
+ * is ignored. A delimiter can only be split upon when the stack is
+ * {@link #isEmpty() empty}.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+final class WrapperStack {
+
+    /**
+     * Verify that {@code wrappers} is a valid sequence of wrapper pairs and
+     * return its chars.
+     * 
+     * @param wrappers the wrapper pairs, where each start char is followed by
+     *            its end char
+     * @return the chars of the wrapper pairs
+     * @throws IllegalArgumentException if {@code wrappers} isn't made up of
+     *             pairs of distinct chars
+     */
+    static char[] checkWrappers(CharSequence wrappers) {
+        Verify.thatArgument(
+                wrappers.length() > 0 && wrappers.length() % 2 == 0
+                        && wrappers.length() <= 2 * Byte.MAX_VALUE,
+                "The wrappers must be a sequence of start and end char pairs");
+        char[] chars = wrappers.toString().toCharArray();
+        char[] sorted = chars.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; ++i) {
+            Verify.thatArgument(sorted[i] != sorted[i - 1],
+                    "Each wrapper char must be distinct");
+        }
+        return chars;
+    }
+
+    /**
+     * The number of wrappers that are open, which is the height of the
+     * {@link #stack}.
+     */
+    private int depth = 0;
+
+    /**
+     * The index of the pair for each wrapper that is open, from the outermost
+     * to the innermost.
+     */
+    private byte[] stack = new byte[8];
+
+    /**
+     * The wrapper pairs, where each start char at an even index is followed
+     * by its end char.
+     */
+    private final char[] wrappers;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param wrappers the {@link #checkWrappers(CharSequence) checked} wrapper
+     *            pairs
+     */
+    WrapperStack(char[] wrappers) {
+        this.wrappers = wrappers;
+    }
+
+    /**
+     * Close all of the wrappers that are open.
+     */
+    void clear() {
+        depth = 0;
+    }
+
+    /**
+     * Return {@code true} if none of the wrappers are open.
+     * 
+     * @return {@code true} if the stack is empty
+     */
+    boolean isEmpty() {
+        return depth == 0;
+    }
+
+    /**
+     * Open or close a wrapper if {@code c} is one of the wrapper chars.
+     * 
+     * @param c the char that was read
+     */
+    void update(char c) {
+        for (int i = 0; i < wrappers.length; i += 2) {
+            if(c == wrappers[i]) {
+                if(depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = (byte) (i >> 1);
+                break;
+            }
+            else if(c == wrappers[i + 1]) {
+                if(depth > 0 && stack[depth - 1] == (i >> 1)) {
+                    --depth;
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Return the wrapper pairs.
+     * 
+     * @return the wrapper chars
+     */
+    char[] wrappers() {
+        return wrappers;
+    }
+
+}
@@ -35,6 +35,9 @@ import com.cinchapi.common.base.ArrayBuilder;
 import com.cinchapi.common.base.CheckedExceptions;
 import com.cinchapi.common.base.Platform;
 import com.cinchapi.common.base.ReadOnlyIterator;
+import com.cinchapi.common.base.RecordReader;
+import com.cinchapi.common.base.SplitOption;
+import com.cinchapi.common.base.SplitterSpec;
 import com.cinchapi.common.process.Processes;
 import com.cinchapi.common.process.Processes.ProcessResult;
 import com.google.common.collect.Iterables;
@@ -372,6 +375,28 @@ public final class Files {
 
     }
 
+    /**
+     * Return an {@link Iterable} collection that lazily reads the records in
+     * the UTF-8 encoded {@code file}, split by the {@code spec}.
+     * <p>
+     * Unlike {@link #readLines(String)}, a record that contains a quoted line
+     * break is returned whole if the {@code spec} is
+     * {@link SplitterSpec#isQuoteAware() quote aware}. Each iteration streams
+     * the file with a new {@link RecordReader}.
+     * </p>
+     * 
+     * @param file the path to the file
+     * @param spec the {@link SplitterSpec} that splits each record; it must
+     *            have {@link SplitOption#SPLIT_ON_NEWLINE} enabled
+     * @return an iterable collection of records in the file
+     */
+    public static Iterable<String[]> readRecords(final String file,
+            SplitterSpec spec) {
+        return () -> new RecordReader(
+                Paths.get(expandPath(file, WORKING_DIRECTORY)),
+                StandardCharsets.UTF_8, spec);
+    }
+
     /**
      * Create a temporary directory with the specified {@code prefix}.
      * 
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2013-2019 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.cinchapi.common.profile.Benchmark;
+
+/**
+ * Benchmarks for {@link AnyStrings}.
+ *
+ * @author Jeff Nelson
+ */
+public class AnyStringsPerformanceTest {
+
+    @Test
+    @Ignore
+    public void testIsSubString() {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 4000; ++i) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        String haystack = sb.toString();
+        String needle = haystack.substring(3900, 3903);
+        int rounds = 20000;
+        Benchmark legacy = new Benchmark(TimeUnit.NANOSECONDS) {
+
+            @Override
+            public void action() {
+                legacyIsSubString(needle, haystack);
+            }
+
+        };
+        Benchmark current = new Benchmark(TimeUnit.NANOSECONDS) {
+
+            @Override
+            public void action() {
+                AnyStrings.isSubString(needle, haystack);
+            }
+
+        };
+        double legacyTime = legacy.average(rounds);
+        double currentTime = current.average(rounds);
+        System.out.println("Legacy: " + legacyTime);
+        System.out.println("Current: " + currentTime);
+        Assert.assertTrue(currentTime < legacyTime);
+    }
+
+    /**
+     * The implementation of {@link AnyStrings#isSubString(String, String)}
+     * before it was delegated to {@link String#indexOf(String)}.
+     *
+     * @param needle
+     * @param haystack
+     * @return {@code true} if {@code needle} is a substring
+     */
+    private static boolean legacyIsSubString(String needle, String haystack) {
+        if(needle.length() > haystack.length()) {
+            return false;
+        }
+        else if(needle.length() == haystack.length()) {
+            return needle.equals(haystack);
+        }
+        else {
+            char[] n = needle.toCharArray();
+            char[] h = haystack.toCharArray();
+            int npos = 0;
+            int hpos = 0;
+            int stop = h.length - n.length;
+            int hstart = -1;
+            while (hpos < h.length && npos < n.length) {
+                char hi = h[hpos];
+                char ni = n[npos];
+                if(hi == ni) {
+                    if(hstart == -1) {
+                        hstart = hpos;
+                    }
+                    ++npos;
+                    ++hpos;
+                }
+                else {
+                    if(npos > 0) {
+                        npos = 0;
+                        hpos = hstart + 1;
+                        hstart = -1;
+                    }
+                    else {
+                        ++hpos;
+                    }
+                    if(hpos > stop) {
+                        return false;
+                    }
+                }
+            }
+            return npos == n.length;
+        }
+    }
+
+}
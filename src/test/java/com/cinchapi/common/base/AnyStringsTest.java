@@ -15,6 +15,8 @@
  */
 package com.cinchapi.common.base;
 
+import java.util.Random;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -60,6 +62,45 @@ public class AnyStringsTest {
                 AnyStrings.replaceUnicodeConfusables("`a`", '`'));
     }
     
+    @Test
+    public void testReplaceUnicodeConfusablesReturnsSameInstance() {
+        String string = "no confusables here";
+        Assert.assertSame(string, AnyStrings.replaceUnicodeConfusables(string));
+        string = "`a`";
+        Assert.assertSame(string,
+                AnyStrings.replaceUnicodeConfusables(string, '`'));
+    }
+
+    @Test
+    public void testReplaceUnicodeConfusablesTo() {
+        StringBuilder sb = new StringBuilder("> ");
+        Assert.assertSame(sb, AnyStrings.replaceUnicodeConfusablesTo(sb,
+                new StringBuilder("“a” and ‘b’ and `c`"), '`'));
+        Assert.assertEquals("> \"a\" and 'b' and `c`", sb.toString());
+    }
+
+    @Test
+    public void testReplaceUnicodeConfusableTable() {
+        String doubles = "ʺ˝ˮ˶ײ״“”‟″‶〃＂";
+        String singles = "`ꞌʻʼיʹʽʾˊˋߴߵʹ׳’˴"
+                + "՚՝‘‛′‵´΄᾽᾿`´῾＇｀";
+        for (int i = Character.MIN_VALUE; i <= Character.MAX_VALUE; ++i) {
+            char c = (char) i;
+            char expected = doubles.indexOf(c) >= 0 ? '"'
+                    : singles.indexOf(c) >= 0 ? '\'' : c;
+            Assert.assertEquals(expected,
+                    AnyStrings.replaceUnicodeConfusable(c));
+        }
+    }
+
+    @Test
+    public void testIsWithinQuotesPreserve() {
+        Assert.assertTrue(AnyStrings.isWithinQuotes("`abc`"));
+        Assert.assertFalse(AnyStrings.isWithinQuotes("`abc`", '`'));
+        Assert.assertFalse(AnyStrings.isWithinQuotes("“abc’"));
+        Assert.assertFalse(AnyStrings.isWithinQuotes("“”"));
+    }
+
     @Test
     public void testJoinEmptyCharacterSeparator() {
         String expected = "";
@@ -72,4 +113,107 @@ public class AnyStringsTest {
         Assert.assertEquals(expected, AnyStrings.join(" and "));
     }
 
+    @Test
+    public void testTryParseNumberTypes() {
+        Assert.assertEquals(Integer.valueOf(-12),
+                AnyStrings.tryParseNumber("-12"));
+        Assert.assertEquals(Long.valueOf(1L << 40),
+                AnyStrings.tryParseNumber(String.valueOf(1L << 40)));
+        Assert.assertEquals(Float.valueOf(0.1f),
+                AnyStrings.tryParseNumber("0.1"));
+        Assert.assertEquals(Float.valueOf(-0.0f),
+                AnyStrings.tryParseNumber("-0.0"));
+        Assert.assertEquals(Double.valueOf(0.123456789012),
+                AnyStrings.tryParseNumber("0.123456789012"));
+        Assert.assertEquals(Double.valueOf(1.5),
+                AnyStrings.tryParseNumber("1.5D"));
+        Assert.assertNull(AnyStrings.tryParseNumber("007"));
+        Assert.assertNull(AnyStrings.tryParseNumber("1.2.3"));
+        Assert.assertNull(AnyStrings.tryParseNumber("-"));
+        Assert.assertNull(AnyStrings.tryParseNumber(""));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testTryParseNumberMalformed() {
+        AnyStrings.tryParseNumber("1e+");
+    }
+
+    @Test
+    public void testTryParseNumberDecimalMatchesStringComparison() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200000; ++i) {
+            StringBuilder sb = new StringBuilder();
+            if(random.nextBoolean()) {
+                sb.append('-');
+            }
+            int digits = 1 + random.nextInt(random.nextBoolean() ? 9 : 18);
+            int point = random.nextInt(digits);
+            sb.append((char) ('1' + random.nextInt(9)));
+            for (int j = 1; j < digits; ++j) {
+                if(j == point) {
+                    sb.append('.');
+                }
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            if(point == 0) {
+                sb.append(".0");
+            }
+            if(random.nextInt(3) == 0) {
+                sb.append('E').append(random.nextInt(80) - 40);
+            }
+            String value = sb.toString();
+            double d = Double.parseDouble(value);
+            float f = Float.parseFloat(value);
+            Number expected = String.valueOf(d).equals(String.valueOf(f))
+                    ? (Number) f
+                    : (Number) d;
+            Assert.assertEquals(value, expected,
+                    AnyStrings.tryParseNumber(value));
+        }
+    }
+
+    @Test
+    public void testTryParsePrimitives() {
+        Assert.assertEquals(42, AnyStrings.tryParseInt("42", -1));
+        Assert.assertEquals(-1, AnyStrings.tryParseInt("4.2", -1));
+        Assert.assertEquals(-1,
+                AnyStrings.tryParseInt(String.valueOf(1L << 40), -1));
+        Assert.assertEquals(1L << 40,
+                AnyStrings.tryParseLong(String.valueOf(1L << 40), -1));
+        Assert.assertEquals(-1, AnyStrings.tryParseLong("abc", -1));
+        Assert.assertEquals(Long.MIN_VALUE,
+                AnyStrings.tryParseLong(String.valueOf(Long.MIN_VALUE), -1));
+        Assert.assertEquals(-1, AnyStrings.tryParseLong("9223372036854775808",
+                -1));
+        Assert.assertEquals(4.2, AnyStrings.tryParseDouble("4.2", -1), 0);
+        Assert.assertEquals(1e300,
+                AnyStrings.tryParseDouble(new StringBuilder("1e300"), -1), 0);
+        Assert.assertEquals(7, AnyStrings.tryParseDouble("7", -1), 0);
+        Assert.assertEquals(-1, AnyStrings.tryParseDouble("1e+", -1), 0);
+        Assert.assertEquals(-1, AnyStrings.tryParseDouble("007", -1), 0);
+    }
+
+    @Test
+    public void testIsSubString() {
+        Random random = new Random();
+        for (int i = 0; i < 5000; ++i) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(64); j > 0; --j) {
+                sb.append("abš".charAt(random.nextInt(3)));
+            }
+            String haystack = sb.toString();
+            String needle;
+            if(haystack.length() > 0 && random.nextBoolean()) {
+                int start = random.nextInt(haystack.length());
+                needle = haystack.substring(start, start
+                        + random.nextInt(haystack.length() - start + 1));
+            }
+            else {
+                needle = random.nextBoolean() ? "ab" : "šab";
+            }
+            Assert.assertEquals(haystack.contains(needle),
+                    AnyStrings.isSubString(needle, haystack));
+        }
+    }
+
 }
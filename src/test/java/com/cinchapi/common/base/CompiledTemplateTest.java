@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2013-2019 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CompiledTemplate}.
+ *
+ * @author Jeff Nelson
+ */
+public class CompiledTemplateTest {
+
+    @Test
+    public void testFormat() {
+        CompiledTemplate template = CompiledTemplate
+                .compile("Hello {}, you are {} years old");
+        Assert.assertEquals(2, template.placeholders());
+        Assert.assertEquals("Hello Jeff, you are 30 years old",
+                template.format("Jeff", 30));
+    }
+
+    @Test
+    public void testEscapedPlaceholder() {
+        CompiledTemplate template = CompiledTemplate.compile("\\{} is {}");
+        Assert.assertEquals(1, template.placeholders());
+        Assert.assertEquals("{} is a", template.format("a"));
+    }
+
+    @Test
+    public void testMorePlaceholdersThanArgs() {
+        Assert.assertEquals("a {} {}.",
+                CompiledTemplate.compile("{} {} {}.").format("a"));
+    }
+
+    @Test
+    public void testMoreArgsThanPlaceholders() {
+        Assert.assertEquals("a b: c d",
+                CompiledTemplate.compile("{} b").format("a", "c", "d"));
+        Assert.assertEquals("c d",
+                CompiledTemplate.compile("").format("c", "d"));
+    }
+
+    @Test
+    public void testNoArgsReturnsTemplate() {
+        String template = "\\{} {}";
+        Assert.assertSame(template,
+                CompiledTemplate.compile(template).format());
+        Assert.assertSame(template, AnyStrings.format(template));
+    }
+
+    @Test
+    public void testCachedTemplateIsReused() {
+        String template = "cached {}";
+        CompiledTemplate.cached(template);
+        CompiledTemplate compiled = CompiledTemplate.cached(template);
+        Assert.assertNotNull(compiled);
+        Assert.assertSame(compiled, CompiledTemplate.cached(template));
+        Assert.assertEquals("cached 1", AnyStrings.format(template, 1));
+    }
+
+    @Test
+    public void testTemplateIsCompiledWhenSeenTwice() {
+        String template = new String("seen {}");
+        Assert.assertNull(CompiledTemplate.cached(template));
+        Assert.assertNotNull(CompiledTemplate.cached(template));
+        Assert.assertNull(CompiledTemplate.cached(new String(template)));
+    }
+
+    @Test
+    public void testMatchesScanningFormat() {
+        Random random = new Random(31);
+        String alphabet = "ab{}\\ ";
+        for (int i = 0; i < 5000; ++i) {
+            char[] chars = new char[random.nextInt(12)];
+            for (int j = 0; j < chars.length; ++j) {
+                chars[j] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            String template = new String(chars);
+            Object[] args = new Object[random.nextInt(4)];
+            for (int j = 0; j < args.length; ++j) {
+                args[j] = j % 2 == 0 ? j : null;
+            }
+            String expected = scanningFormat(template, args);
+            Assert.assertEquals(template, expected,
+                    CompiledTemplate.compile(template).format(args));
+            Assert.assertEquals(template, expected,
+                    CompiledTemplate.formatOnce(template, args));
+            Assert.assertEquals(template, expected,
+                    AnyStrings.format(template, args));
+        }
+    }
+
+    @Test
+    public void testFormatToAppendable() {
+        StringBuilder sb = new StringBuilder("> ");
+        Assert.assertSame(sb,
+                AnyStrings.formatTo(sb, "{} and {}", "a", "b", "c"));
+        Assert.assertEquals("> a and b: c", sb.toString());
+        StringWriter writer = new StringWriter();
+        AnyStrings.formatTo(writer, "\\{} {}");
+        Assert.assertEquals("\\{} {}", writer.toString());
+    }
+
+    @Test
+    public void testFormatToKeepsStackTrace() {
+        Exception e = new IllegalStateException("boom");
+        String expected = AnyStrings.format("failed {}", "x", e);
+        Assert.assertTrue(expected.startsWith(
+                "failed x: java.lang.IllegalStateException: boom"));
+        Assert.assertTrue(expected.contains("testFormatToKeepsStackTrace"));
+        Assert.assertEquals(expected, AnyStrings
+                .formatTo(new StringWriter(), "failed {}", "x", e).toString());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testFormatToPropagatesIOException() {
+        Writer writer = new Writer() {
+
+            @Override
+            public void close() throws IOException {}
+
+            @Override
+            public void flush() throws IOException {}
+
+            @Override
+            public void write(char[] cbuf, int off, int len)
+                    throws IOException {
+                throw new IOException();
+            }
+
+        };
+        AnyStrings.formatTo(writer, "{}", 1);
+    }
+
+    @Test
+    public void testFormatToThreadLocal() {
+        CharSequence first = AnyStrings.formatToThreadLocal("a{}", 1);
+        Assert.assertEquals("a1", first.toString());
+        CharSequence second = AnyStrings.formatToThreadLocal("b{}", 2);
+        Assert.assertSame(first, second);
+        Assert.assertEquals("b2", second.toString());
+    }
+
+    @Test
+    public void testFormatToThreadLocalIsReentrant() {
+        Object nested = new Object() {
+
+            @Override
+            public String toString() {
+                return AnyStrings.formatToThreadLocal("<{}>", "inner")
+                        .toString();
+            }
+
+        };
+        CharSequence outer = AnyStrings.formatToThreadLocal("a {} b {} c",
+                nested, nested);
+        Assert.assertEquals("a <inner> b <inner> c", outer.toString());
+        Assert.assertSame(outer, AnyStrings.formatToThreadLocal("d"));
+    }
+
+    /**
+     * The original implementation of
+     * {@link AnyStrings#format(String, Object...)}, which scans the template
+     * on each call, to compare against.
+     * 
+     * @param template
+     * @param args
+     * @return the formatted string
+     */
+    private static String scanningFormat(String template, Object... args) {
+        if(args == null || args.length == 0) {
+            return template;
+        }
+        StringBuilder sb = new StringBuilder();
+        char[] chars = template.toCharArray();
+        int argsIndex = 0;
+        int copyOffset = 0;
+        int copyLength = 0;
+        int i = 0;
+        while (i < chars.length) {
+            char c = chars[i];
+            char nextc = i + 1 < chars.length ? chars[i + 1] : '\0';
+            if(c == '\\' && nextc == '{') {
+                sb.append(chars, copyOffset, copyLength).append('{');
+                i += 2;
+                copyOffset = i;
+                copyLength = 0;
+            }
+            else if(c == '{' && nextc == '}' && argsIndex < args.length) {
+                sb.append(chars, copyOffset, copyLength);
+                sb.append(String.valueOf(args[argsIndex++]));
+                i += 2;
+                copyOffset = i;
+                copyLength = 0;
+            }
+            else {
+                ++i;
+                ++copyLength;
+            }
+        }
+        sb.append(chars, copyOffset, copyLength);
+        if(argsIndex < args.length) {
+            if(!template.isEmpty()) {
+                sb.append(": ");
+            }
+            for (int j = argsIndex; j < args.length; ++j) {
+                sb.append(String.valueOf(args[j]));
+                if(j + 1 < args.length) {
+                    sb.append(' ');
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+}
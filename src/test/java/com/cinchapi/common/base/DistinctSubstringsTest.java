@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2013-2019 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Unit tests for {@link DistinctSubstrings}.
+ *
+ * @author Jeff Nelson
+ */
+public class DistinctSubstringsTest {
+
+    @Test
+    public void testSubstrings() {
+        DistinctSubstrings substrings = DistinctSubstrings.of("abab");
+        Assert.assertEquals(Sets.newHashSet("a", "b", "ab", "ba", "aba",
+                "bab", "abab"), Sets.newHashSet(substrings));
+        Assert.assertEquals(7, substrings.count());
+    }
+
+    @Test
+    public void testWhitespaceIsTrimmed() {
+        DistinctSubstrings substrings = DistinctSubstrings.of(" a b ");
+        Assert.assertEquals(Sets.newHashSet("a", "b", "a b"),
+                Sets.newHashSet(substrings));
+        Assert.assertTrue(substrings.contains("a b"));
+        Assert.assertFalse(substrings.contains("a "));
+        Assert.assertFalse(substrings.contains(" "));
+        Assert.assertFalse(substrings.contains(""));
+    }
+
+    @Test
+    public void testEmptyString() {
+        DistinctSubstrings substrings = DistinctSubstrings.of("");
+        Assert.assertEquals(0, substrings.count());
+        Assert.assertFalse(substrings.iterator().hasNext());
+    }
+
+    @Test
+    public void testLengthBounds() {
+        DistinctSubstrings substrings = DistinctSubstrings.of("banana")
+                .withLengthBetween(2, 3);
+        Assert.assertEquals(
+                Sets.newHashSet("ba", "an", "na", "ban", "ana", "nan"),
+                substrings.stream().collect(Collectors.toSet()));
+        Assert.assertEquals(6, substrings.count());
+        Assert.assertTrue(substrings.contains("nan"));
+        Assert.assertFalse(substrings.contains("n"));
+        Assert.assertFalse(substrings.contains("anan"));
+    }
+
+    @Test
+    public void testLongStringIsNotMaterialized() {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100000; ++i) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        String string = sb.toString();
+        DistinctSubstrings substrings = DistinctSubstrings.of(string);
+        Assert.assertTrue(substrings.count() > 4_000_000_000L);
+        Assert.assertTrue(substrings.contains(string.substring(500, 1500)));
+        Assert.assertEquals(10,
+                substrings.withLengthBetween(1000, 2000).stream().limit(10)
+                        .filter(s -> s.length() >= 1000).count());
+    }
+
+    @Test
+    public void testMatchesGetAllSubStrings() {
+        Random random = new Random();
+        for (int i = 0; i < 300; ++i) {
+            char[] chars = new char[random.nextInt(40)];
+            for (int j = 0; j < chars.length; ++j) {
+                chars[j] = "ab \tc".charAt(random.nextInt(5));
+            }
+            String string = new String(chars);
+            Set<String> expected = legacyGetAllSubStrings(string);
+            DistinctSubstrings substrings = DistinctSubstrings.of(string);
+            List<String> actual = substrings.stream()
+                    .collect(Collectors.toList());
+            Assert.assertEquals(expected.size(), actual.size());
+            Assert.assertEquals(expected, new HashSet<>(actual));
+            Assert.assertEquals(expected.size(), substrings.count());
+            Assert.assertEquals(expected, AnyStrings.getAllSubStrings(string));
+            for (String substring : expected) {
+                Assert.assertTrue(substrings.contains(substring));
+            }
+            int min = random.nextInt(5);
+            int max = min + random.nextInt(5);
+            Set<String> bounded = expected.stream()
+                    .filter(s -> s.length() >= min && s.length() <= max)
+                    .collect(Collectors.toSet());
+            Assert.assertEquals(bounded, Sets.newHashSet(
+                    substrings.withLengthBetween(min, max)));
+            Assert.assertEquals(bounded.size(),
+                    substrings.withLengthBetween(min, max).count());
+        }
+    }
+
+    /**
+     * The implementation of {@link AnyStrings#getAllSubStrings(String)}
+     * before it was backed by {@link DistinctSubstrings}.
+     *
+     * @param string
+     * @return the set of substrings
+     */
+    private static Set<String> legacyGetAllSubStrings(String string) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < string.length(); ++i) {
+            for (int j = i + 1; j <= string.length(); ++j) {
+                String substring = string.substring(i, j).trim();
+                if(!substring.isEmpty()) {
+                    result.add(substring);
+                }
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2013-2019 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.cinchapi.common.profile.Benchmark;
+
+/**
+ * Benchmarks for {@link MultiSubstringSearcher}.
+ *
+ * @author Jeff Nelson
+ */
+public class MultiSubstringSearcherPerformanceTest {
+
+    @Test
+    @Ignore
+    public void testManyKeywords() {
+        Random random = new Random(1);
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < 300; ++i) {
+            keywords.add(random(random, 5 + random.nextInt(6)));
+        }
+        String text = random(random, 1000);
+        MultiSubstringSearcher searcher = MultiSubstringSearcher
+                .compile(keywords);
+        int rounds = 2000;
+        Benchmark loop = new Benchmark(TimeUnit.MICROSECONDS) {
+
+            @Override
+            public void action() {
+                for (String keyword : keywords) {
+                    if(AnyStrings.isSubString(keyword, text)) {
+                        break;
+                    }
+                }
+            }
+
+        };
+        Benchmark compiled = new Benchmark(TimeUnit.MICROSECONDS) {
+
+            @Override
+            public void action() {
+                searcher.occursIn(text);
+            }
+
+        };
+        double loopTime = loop.average(rounds);
+        double compiledTime = compiled.average(rounds);
+        System.out.println("Loop: " + loopTime);
+        System.out.println("Compiled: " + compiledTime);
+        Assert.assertTrue(compiledTime < loopTime);
+    }
+
+    /**
+     * Return a random string of {@code length} lowercase letters.
+     *
+     * @param random
+     * @param length
+     * @return the random string
+     */
+    private static String random(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; ++i) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+}
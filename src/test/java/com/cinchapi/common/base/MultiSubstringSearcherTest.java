@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2013-2019 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MultiSubstringSearcher}.
+ *
+ * @author Jeff Nelson
+ */
+public class MultiSubstringSearcherTest {
+
+    @Test
+    public void testFindAllOverlapping() {
+        MultiSubstringSearcher searcher = MultiSubstringSearcher.compile("he",
+                "she", "his", "hers");
+        List<MultiSubstringSearcher.Match> matches = searcher
+                .findAll("ushers");
+        Assert.assertEquals(3, matches.size());
+        Assert.assertEquals("she", text("ushers", searcher, matches.get(0)));
+        Assert.assertEquals(1, matches.get(0).start());
+        Assert.assertEquals("he", text("ushers", searcher, matches.get(1)));
+        Assert.assertEquals(2, matches.get(1).start());
+        Assert.assertEquals("hers", text("ushers", searcher, matches.get(2)));
+        Assert.assertEquals(6, matches.get(2).end());
+    }
+
+    @Test
+    public void testFindFirst() {
+        MultiSubstringSearcher searcher = MultiSubstringSearcher
+                .compile(Arrays.asList("error", "warn", "rro"));
+        MultiSubstringSearcher.Match match = searcher
+                .findFirst("a warning and an error");
+        Assert.assertEquals(1, match.needle());
+        Assert.assertEquals(2, match.start());
+        Assert.assertEquals(6, match.end());
+        match = searcher.findFirst("errors");
+        Assert.assertEquals(2, match.needle());
+        Assert.assertNull(searcher.findFirst("all good"));
+    }
+
+    @Test
+    public void testOccursIn() {
+        MultiSubstringSearcher searcher = MultiSubstringSearcher
+                .compile("café", "naïve");
+        Assert.assertTrue(searcher.occursIn("a naïve idea"));
+        Assert.assertTrue(searcher.occursIn(new StringBuilder("le café")));
+        Assert.assertFalse(searcher.occursIn("a naive cafe"));
+        Assert.assertFalse(searcher.occursIn(""));
+    }
+
+    @Test
+    public void testDuplicateNeedle() {
+        MultiSubstringSearcher searcher = MultiSubstringSearcher.compile("ab",
+                "b", "ab");
+        Assert.assertEquals(3, searcher.size());
+        Assert.assertEquals(2, searcher.findAll("ab").size());
+        Assert.assertEquals(0, searcher.findFirst("ab").needle());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyNeedle() {
+        MultiSubstringSearcher.compile("a", "");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoNeedles() {
+        MultiSubstringSearcher.compile();
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random();
+        for (int i = 0; i < 500; ++i) {
+            List<String> needles = new ArrayList<>();
+            int count = 1 + random.nextInt(20);
+            while (needles.size() < count) {
+                String needle = random(random, 1 + random.nextInt(5));
+                if(!needles.contains(needle)) {
+                    needles.add(needle);
+                }
+            }
+            String haystack = random(random, random.nextInt(100));
+            Set<String> expected = new HashSet<>();
+            for (int n = 0; n < needles.size(); ++n) {
+                String needle = needles.get(n);
+                int index = haystack.indexOf(needle);
+                while (index >= 0) {
+                    expected.add(n + "@[" + index + ", "
+                            + (index + needle.length()) + ")");
+                    index = haystack.indexOf(needle, index + 1);
+                }
+            }
+            MultiSubstringSearcher searcher = MultiSubstringSearcher
+                    .compile(needles);
+            List<MultiSubstringSearcher.Match> matches = searcher
+                    .findAll(haystack);
+            Set<String> actual = new HashSet<>();
+            int end = 0;
+            for (MultiSubstringSearcher.Match match : matches) {
+                Assert.assertTrue(match.end() >= end);
+                end = match.end();
+                actual.add(match.toString());
+            }
+            Assert.assertEquals(expected.size(), matches.size());
+            Assert.assertEquals(expected, actual);
+            Assert.assertEquals(!expected.isEmpty(),
+                    searcher.occursIn(haystack));
+            Assert.assertEquals(matches.isEmpty() ? null : matches.get(0),
+                    searcher.findFirst(haystack));
+        }
+    }
+
+    /**
+     * Return a random string of {@code length} chars from a small alphabet,
+     * so that needles often overlap.
+     *
+     * @param random
+     * @param length
+     * @return the random string
+     */
+    private static String random(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; ++i) {
+            chars[i] = "abcé".charAt(random.nextInt(4));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Return the text of the {@code match} in the {@code haystack}, after
+     * verifying that it is the needle that was matched.
+     *
+     * @param haystack
+     * @param searcher
+     * @param match
+     * @return the text of the match
+     */
+    private static String text(String haystack,
+            MultiSubstringSearcher searcher,
+            MultiSubstringSearcher.Match match) {
+        String text = haystack.substring(match.start(), match.end());
+        Assert.assertEquals(searcher.needle(match.needle()), text);
+        return text;
+    }
+
+}
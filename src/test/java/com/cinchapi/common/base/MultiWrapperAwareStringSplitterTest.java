@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2013-2019 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MultiWrapperAwareStringSplitter}.
+ *
+ * @author Jeff Nelson
+ */
+public class MultiWrapperAwareStringSplitterTest {
+
+    @Test
+    public void testNestedWrappers() {
+        String string = "a, {b, [c, (d, e)], f}, (g, [h]), i";
+        StringSplitter it = new MultiWrapperAwareStringSplitter("{}[]()",
+                string, ',', SplitOption.TRIM_WHITESPACE);
+        Assert.assertArrayEquals(new String[] { "a", "{b, [c, (d, e)], f}",
+                "(g, [h])", "i" }, it.toArray());
+    }
+
+    @Test
+    public void testMismatchedEndIsIgnored() {
+        // The } doesn't close the [ so the wrapper is still open
+        String string = "{a, [b}, c]}, d";
+        StringSplitter it = new MultiWrapperAwareStringSplitter("{}[]",
+                string, ',', SplitOption.TRIM_WHITESPACE);
+        Assert.assertArrayEquals(new String[] { "{a, [b}, c]}", "d" },
+                it.toArray());
+    }
+
+    @Test
+    public void testWrappersWithinQuotesAreCounted() {
+        String string = "\"[\", a, ], b";
+        StringSplitter it = new MultiWrapperAwareStringSplitter("{}[]",
+                string, ',', SplitOption.TRIM_WHITESPACE);
+        Assert.assertArrayEquals(new String[] { "\"[\", a, ]", "b" },
+                it.toArray());
+    }
+
+    @Test
+    public void testResetClearsWrapperState() {
+        StringSplitter it = new MultiWrapperAwareStringSplitter("{}[]",
+                "{[a, b", ',');
+        Assert.assertEquals(1, it.toArray().length);
+        it.reset("c, d");
+        Assert.assertEquals(2, it.toArray().length);
+    }
+
+    @Test
+    public void testSplitReaderAndByteBuffer() {
+        String string = "x, {y: [1, 2]}, (z, w)";
+        String[] expected = { "x", "{y: [1, 2]}", "(z, w)" };
+        Assert.assertArrayEquals(expected,
+                new MultiWrapperAwareStringSplitter("{}[]()",
+                        new StringReader(string), ',',
+                        SplitOption.TRIM_WHITESPACE).toArray());
+        Assert.assertArrayEquals(expected,
+                new MultiWrapperAwareStringSplitter("{}[]()",
+                        ByteBuffer.wrap(
+                                string.getBytes(StandardCharsets.UTF_8)),
+                        ',', SplitOption.TRIM_WHITESPACE).toArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrappersMustBeDistinct() {
+        new MultiWrapperAwareStringSplitter("{}{]", "a", ',');
+    }
+
+}
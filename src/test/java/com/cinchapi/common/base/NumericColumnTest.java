@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2013-2019 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link NumericColumn}.
+ *
+ * @author Jeff Nelson
+ */
+public class NumericColumnTest {
+
+    @Test
+    public void testIntColumn() {
+        NumericColumn column = NumericColumn.parse("1", "-2", "30", "0");
+        Assert.assertEquals(NumericColumn.Type.INT, column.type());
+        Assert.assertArrayEquals(new int[] { 1, -2, 30, 0 }, column.ints());
+        Assert.assertArrayEquals(new long[] { 1, -2, 30, 0 }, column.longs());
+        Assert.assertEquals(4, column.validCount());
+    }
+
+    @Test
+    public void testWidenToLong() {
+        NumericColumn column = NumericColumn.parse("1", "9999999999", "3");
+        Assert.assertEquals(NumericColumn.Type.LONG, column.type());
+        Assert.assertArrayEquals(new long[] { 1, 9999999999L, 3 },
+                column.longs());
+    }
+
+    @Test
+    public void testWidenToDouble() {
+        NumericColumn column = NumericColumn.parse("1", "9999999999", "2.5",
+                "4");
+        Assert.assertEquals(NumericColumn.Type.DOUBLE, column.type());
+        Assert.assertArrayEquals(new double[] { 1, 9999999999L, 2.5, 4 },
+                column.doubles(), 0);
+    }
+
+    @Test
+    public void testWidenToDoubleRoundsLargeLongs() {
+        long large = (1L << 53) + 1;
+        NumericColumn column = NumericColumn.parse(Long.toString(large),
+                "1.5", Long.toString(large));
+        Assert.assertEquals(NumericColumn.Type.DOUBLE, column.type());
+        double[] values = column.doubles();
+        Assert.assertEquals(1L << 53, (long) values[0]);
+        Assert.assertEquals(1L << 53, (long) values[2]);
+        Assert.assertArrayEquals(new long[] { large },
+                NumericColumn.parse(Long.toString(large)).longs());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCannotGetIntsFromWiderColumn() {
+        NumericColumn.parse("1", "9999999999").ints();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCannotGetLongsFromDoubleColumn() {
+        NumericColumn.parse("1", "1.5").longs();
+    }
+
+    @Test
+    public void testInvalidCells() {
+        NumericColumn column = NumericColumn.parse("1", "foo", null, "",
+                "1.2.3", "4");
+        Assert.assertEquals(NumericColumn.Type.INT, column.type());
+        Assert.assertEquals(6, column.size());
+        Assert.assertEquals(2, column.validCount());
+        Assert.assertTrue(column.isValid(0));
+        Assert.assertFalse(column.isValid(1));
+        Assert.assertFalse(column.isValid(2));
+        Assert.assertFalse(column.isValid(3));
+        Assert.assertFalse(column.isValid(4));
+        Assert.assertTrue(column.isValid(5));
+        Assert.assertArrayEquals(new int[] { 1, 0, 0, 0, 0, 4 },
+                column.ints());
+        Assert.assertEquals(2, column.validity().cardinality());
+    }
+
+    @Test
+    public void testParseList() {
+        List<String> cells = Arrays.asList("10", "20", "30");
+        Assert.assertArrayEquals(new int[] { 10, 20, 30 },
+                NumericColumn.parse(cells).ints());
+    }
+
+    @Test
+    public void testParseSplitter() {
+        NumericColumn column = NumericColumn
+                .parse(new StringSplitter("1,2,x,3.5", ','));
+        Assert.assertEquals(NumericColumn.Type.DOUBLE, column.type());
+        Assert.assertEquals(4, column.size());
+        Assert.assertFalse(column.isValid(2));
+        Assert.assertArrayEquals(new double[] { 1, 2, 0, 3.5 },
+                column.doubles(), 0);
+    }
+
+    @Test
+    public void testParseByteSplitter() {
+        ByteBuffer bytes = ByteBuffer
+                .wrap("7,é,8".getBytes(StandardCharsets.UTF_8));
+        NumericColumn column = NumericColumn
+                .parse(new StringSplitter(bytes, ','));
+        Assert.assertArrayEquals(new int[] { 7, 0, 8 }, column.ints());
+        Assert.assertFalse(column.isValid(1));
+    }
+
+    @Test
+    public void testParseSplitterGrows() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            sb.append(i).append(',');
+        }
+        sb.append("5000000000");
+        NumericColumn column = NumericColumn
+                .parse(new StringSplitter(sb.toString(), ','));
+        Assert.assertEquals(101, column.size());
+        long[] values = column.longs();
+        Assert.assertEquals(101, values.length);
+        Assert.assertEquals(99, values[99]);
+        Assert.assertEquals(5000000000L, values[100]);
+    }
+
+    @Test
+    public void testMatchesTryParseNumber() {
+        Random random = new Random();
+        List<String> cells = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            switch (random.nextInt(4)) {
+            case 0:
+                cells.add(Integer.toString(random.nextInt()));
+                break;
+            case 1:
+                cells.add(Long.toString(random.nextLong()));
+                break;
+            case 2:
+                cells.add(Double.toString(random.nextDouble() * 1000));
+                break;
+            default:
+                cells.add(Random.class.getSimpleName() + i);
+                break;
+            }
+        }
+        NumericColumn column = NumericColumn.parse(cells);
+        double[] values = column.doubles();
+        for (int i = 0; i < cells.size(); ++i) {
+            Number expected = AnyStrings.tryParseNumber(cells.get(i));
+            Assert.assertEquals(expected != null, column.isValid(i));
+            if(expected != null) {
+                Assert.assertEquals(expected.doubleValue(), values[i],
+                        Math.ulp(values[i]));
+            }
+        }
+    }
+
+}
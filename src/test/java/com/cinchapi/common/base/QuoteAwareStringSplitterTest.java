@@ -15,7 +15,11 @@
  */
 package com.cinchapi.common.base;
 
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -195,4 +199,124 @@ public class QuoteAwareStringSplitterTest {
 
     }
 
+    @Test
+    public void testNextTokenDropQuotes() {
+        String string = "a,\"b,c\",d";
+        QuoteAwareStringSplitter it = new QuoteAwareStringSplitter(string, ',',
+                SplitOption.DROP_QUOTES);
+        Assert.assertTrue(it.nextToken().contentEquals("a"));
+        StringSplitter.Token token = it.nextToken();
+        Assert.assertEquals(3, token.offset());
+        Assert.assertEquals("b,c", token.toString());
+        Assert.assertTrue(it.nextToken().contentEquals("d"));
+    }
+
+    @Test
+    public void testResetClearsQuoteState() {
+        QuoteAwareStringSplitter it = new QuoteAwareStringSplitter(
+                "x \"a b", ' ');
+        Assert.assertArrayEquals(new String[] { "x", "\"a b" }, it.toArray());
+        it.reset("c d");
+        Assert.assertArrayEquals(new String[] { "c", "d" }, it.toArray());
+    }
+
+    @Test
+    public void testSplitReader() {
+        StringBuilder sb = new StringBuilder();
+        Random random = new Random();
+        for (int i = 0; i < 5000; ++i) {
+            sb.append(random.nextInt(100));
+            int r = random.nextInt(20);
+            if(r == 0) {
+                sb.append(",\"quoted, with\nnewline\"");
+            }
+            else if(r == 1) {
+                sb.append(",'90s");
+            }
+            else if(r == 2) {
+                sb.append('\n');
+            }
+            sb.append(',');
+        }
+        String string = sb.toString();
+        StringSplitter expected = new QuoteAwareStringSplitter(string, ',',
+                SplitOption.SPLIT_ON_NEWLINE, SplitOption.DROP_QUOTES);
+        StringSplitter actual = new QuoteAwareStringSplitter(
+                new StringSplitterTest.ChunkedReader(string, random), ',',
+                SplitOption.SPLIT_ON_NEWLINE, SplitOption.DROP_QUOTES);
+        while (expected.hasNext()) {
+            Assert.assertEquals(expected.next(), actual.next());
+            Assert.assertEquals(expected.atEndOfLine(), actual.atEndOfLine());
+        }
+        Assert.assertFalse(actual.hasNext());
+        actual = new QuoteAwareStringSplitter(
+                new StringReader("don't,\"a,b\""), ',');
+        Assert.assertArrayEquals(new String[] { "don't", "\"a,b\"" },
+                actual.toArray());
+    }
+
+    @Test
+    public void testSplitByteBuffer() {
+        String string = "caf\u00e9's menu, \"na\u00efve, \u65e5\u672c\", "
+                + "\u201cdone\u201d, '\u00e9t\u00e9'";
+        ByteBuffer buffer = ByteBuffer
+                .wrap(string.getBytes(StandardCharsets.UTF_8));
+        SplitOption[] options = { SplitOption.DROP_QUOTES,
+                SplitOption.TRIM_WHITESPACE };
+        Assert.assertArrayEquals(
+                new QuoteAwareStringSplitter(string, ',', options).toArray(),
+                new QuoteAwareStringSplitter(buffer, ',', options).toArray());
+    }
+
+    @Test
+    public void testApostrophesAndSingleQuotes() {
+        String string = "it's a 'quoted, token', rock 'n' roll, '90s, "
+                + "\\'escaped";
+        Assert.assertArrayEquals(
+                new String[] { "it's a 'quoted, token'", "rock 'n' roll",
+                        "'90s", "\\'escaped" },
+                new QuoteAwareStringSplitter(string, ',',
+                        SplitOption.TRIM_WHITESPACE).toArray());
+    }
+
+    @Test
+    public void testQuoteAfterUnclosedApostrophe() {
+        for (String end : new String[] { "", "\\" }) {
+            Assert.assertArrayEquals(new String[] { "'\"a, b" + end },
+                    new QuoteAwareStringSplitter("'\"a, b" + end, ',')
+                            .toArray());
+            Assert.assertArrayEquals(new String[] { "'\"\"", " b" + end },
+                    new QuoteAwareStringSplitter("'\"\", b" + end, ',')
+                            .toArray());
+            Assert.assertArrayEquals(new String[] { "'\\\"a", " b" + end },
+                    new QuoteAwareStringSplitter("'\\\"a, b" + end, ',')
+                            .toArray());
+        }
+    }
+
+    @Test
+    public void testDropQuotesAfterUnclosedApostrophe() {
+        SplitOption[] options = { SplitOption.DROP_QUOTES,
+                SplitOption.TRIM_WHITESPACE };
+        Assert.assertArrayEquals(new String[] { "'a'", "b" },
+                new QuoteAwareStringSplitter("''a'', b", ',', options)
+                        .toArray());
+        Assert.assertArrayEquals(new String[] { "''b'", "c" },
+                new QuoteAwareStringSplitter("'''b'', c", ',', options)
+                        .toArray());
+    }
+
+    @Test
+    public void testSplitReaderWithApostrophes() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; ++i) {
+            sb.append(i % 7 == 0 ? "'" : "").append(i).append(',');
+        }
+        String string = sb.toString();
+        Assert.assertArrayEquals(
+                new QuoteAwareStringSplitter(string, ',').toArray(),
+                new QuoteAwareStringSplitter(new StringReader(string), ',')
+                        .toArray());
+    }
+
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.cinchapi.common.profile.Benchmark;
+
+/**
+ * Benchmarks for {@link RecordReader}.
+ * <p>
+ * The size of the generated input defaults to 64MB and can be changed with
+ * the {@code com.cinchapi.common.base.RecordReaderPerformanceTest.bytes}
+ * system property (i.e. to benchmark multi-GB files).
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+public class RecordReaderPerformanceTest {
+
+    @Test
+    @Ignore
+    public void testReadLargeFile() throws IOException {
+        long bytes = Long.getLong(
+                RecordReaderPerformanceTest.class.getName() + ".bytes",
+                64L << 20);
+        SplitterSpec spec = SplitterSpec.builder().delimiter(',')
+                .quoteAware().options(SplitOption.SPLIT_ON_NEWLINE,
+                        SplitOption.DROP_QUOTES, SplitOption.TRIM_WHITESPACE)
+                .build();
+        Path file = Files.createTempFile("records", ".csv");
+        try {
+            String record = "1024, \"Anacostia\", \"a small residential "
+                    + "community, in Washington D.C.\", 3.14, true, "
+                    + "\"navigate through love, betrayal, deception\"\n";
+            long records = 0;
+            try (Writer writer = Files.newBufferedWriter(file,
+                    StandardCharsets.UTF_8)) {
+                for (long written = 0; written < bytes; written += record
+                        .length()) {
+                    writer.write(record);
+                    ++records;
+                }
+            }
+            long expected = records;
+            Benchmark lines = new Benchmark(TimeUnit.MILLISECONDS) {
+
+                @Override
+                public void action() {
+                    long count = 0;
+                    try (BufferedReader reader = Files.newBufferedReader(file,
+                            StandardCharsets.UTF_8)) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            new QuoteAwareStringSplitter(line, ',',
+                                    SplitOption.DROP_QUOTES,
+                                    SplitOption.TRIM_WHITESPACE).toArray();
+                            ++count;
+                        }
+                    }
+                    catch (IOException e) {
+                        throw CheckedExceptions.throwAsRuntimeException(e);
+                    }
+                    Assert.assertEquals(expected, count);
+                }
+
+            };
+            Benchmark reader = new Benchmark(TimeUnit.MILLISECONDS) {
+
+                @Override
+                public void action() {
+                    long count = 0;
+                    try (RecordReader reader = new RecordReader(file,
+                            StandardCharsets.UTF_8, spec)) {
+                        while (reader.hasNext()) {
+                            reader.next();
+                            ++count;
+                        }
+                    }
+                    catch (IOException e) {
+                        throw CheckedExceptions.throwAsRuntimeException(e);
+                    }
+                    Assert.assertEquals(expected, count);
+                }
+
+            };
+            double linesTime = lines.average(3);
+            double readerTime = reader.average(3);
+            // Reading records streams the file once, without materializing
+            // each line, so it should not be slower than splitting lines
+            // (which breaks records that contain quoted line breaks)
+            Assert.assertTrue(readerTime < linesTime * 1.5);
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+}
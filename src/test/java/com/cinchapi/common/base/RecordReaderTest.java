@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.cinchapi.common.io.Files;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+
+/**
+ * Unit tests for {@link RecordReader}.
+ * 
+ * @author Jeff Nelson
+ */
+public class RecordReaderTest {
+
+    /**
+     * The spec that is used to read CSV records.
+     */
+    private static final SplitterSpec CSV = SplitterSpec.builder()
+            .delimiter(',').quoteAware()
+            .options(SplitOption.SPLIT_ON_NEWLINE, SplitOption.DROP_QUOTES,
+                    SplitOption.TRIM_WHITESPACE)
+            .build();
+
+    @Test
+    public void testRecordsWithQuotedLineBreaks() {
+        String csv = "name, bio\r\n" + "jeff, \"likes\nlong, walks\"\n"
+                + "\n" + "ashleah,\"line\r\nbreak\"\n";
+        List<String[]> records = Lists
+                .newArrayList(new RecordReader(new StringReader(csv), CSV));
+        Assert.assertEquals(3, records.size());
+        Assert.assertArrayEquals(new String[] { "name", "bio" },
+                records.get(0));
+        Assert.assertArrayEquals(
+                new String[] { "jeff", "likes\nlong, walks" },
+                records.get(1));
+        Assert.assertArrayEquals(
+                new String[] { "ashleah", "line\r\nbreak" },
+                records.get(2));
+    }
+
+    @Test
+    public void testTrailingEmptyFieldsAreKept() {
+        for (String end : new String[] { "\n", "\r\n", "" }) {
+            String csv = "a,b,\nc,d," + end;
+            Assert.assertArrayEquals(
+                    new Object[] { new String[] { "a", "b", "" },
+                            new String[] { "c", "d", "" } },
+                    Lists.newArrayList(
+                            new RecordReader(new StringReader(csv), CSV))
+                            .toArray());
+            csv = "a,,\nc,," + end;
+            Assert.assertArrayEquals(
+                    new Object[] { new String[] { "a", "", "" },
+                            new String[] { "c", "", "" } },
+                    Lists.newArrayList(
+                            new RecordReader(new StringReader(csv), CSV))
+                            .toArray());
+            csv = "x," + end;
+            Assert.assertArrayEquals(
+                    new Object[] { new String[] { "x", "" } },
+                    Lists.newArrayList(
+                            new RecordReader(new StringReader(csv), CSV))
+                            .toArray());
+        }
+    }
+
+    @Test
+    public void testReadRandomRecords() {
+        Random random = new Random();
+        List<String[]> expected = Lists.newArrayList();
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 2000; ++i) {
+            String[] record = new String[random.nextInt(40) + 1];
+            for (int j = 0; j < record.length; ++j) {
+                if(j > 0) {
+                    csv.append(',');
+                }
+                if(random.nextBoolean()) {
+                    record[j] = random("ab, \n\r\n", random.nextInt(20) + 1,
+                            random).trim();
+                    if(record[j].isEmpty()) {
+                        record[j] = "c";
+                    }
+                    csv.append('"').append(record[j]).append('"');
+                }
+                else {
+                    record[j] = random("abc", random.nextInt(20), random);
+                    csv.append(record[j]);
+                }
+            }
+            if(record.length > 1 || !record[0].isEmpty()) {
+                expected.add(record);
+            }
+            if(i < 1999 || random.nextBoolean()) {
+                csv.append(random.nextBoolean() ? "\n" : "\r\n");
+            }
+        }
+        RecordReader reader = new RecordReader(
+                new StringSplitterTest.ChunkedReader(csv.toString(), random),
+                CSV);
+        for (String[] record : expected) {
+            Assert.assertArrayEquals(record, reader.next());
+        }
+        Assert.assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void testReadRecordsBeyondIntegerRange() {
+        String csv = "1, \"quoted\r\nfield, \", 'single', o'clock, "
+                + Strings.repeat("z", 2000) + "\r\n";
+        String[] expected = new RecordReader(new StringReader(csv), CSV)
+                .next();
+        long records = (Integer.MAX_VALUE / csv.length()) + 16;
+        RecordReader reader = new RecordReader(
+                new StringSplitterTest.RepeatingReader(csv, records), CSV);
+        long count = 0;
+        while (reader.hasNext()) {
+            Assert.assertArrayEquals(expected, reader.next());
+            ++count;
+        }
+        Assert.assertEquals(records, count);
+        Assert.assertTrue(count * csv.length() > Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testReadRecordsFromFile() throws IOException {
+        Path file = java.nio.file.Files.createTempFile("records", ".csv");
+        try {
+            java.nio.file.Files.write(file, "a,\"b\nc\"\n\u00e9,d\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            List<String[]> records = Lists.newArrayList(
+                    Files.readRecords(file.toString(), CSV));
+            Assert.assertEquals(2, records.size());
+            Assert.assertArrayEquals(new String[] { "a", "b\nc" },
+                    records.get(0));
+            Assert.assertArrayEquals(new String[] { "\u00e9", "d" },
+                    records.get(1));
+        }
+        finally {
+            java.nio.file.Files.delete(file);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSpecMustSplitOnNewline() {
+        new RecordReader(new StringReader("a,b"),
+                SplitterSpec.builder().delimiter(',').quoteAware().build());
+    }
+
+    /**
+     * Return a random string of {@code length} chars from the
+     * {@code alphabet}.
+     * 
+     * @param alphabet
+     * @param length
+     * @param random
+     * @return the random string
+     */
+    private static String random(String alphabet, int length, Random random) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; ++i) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+
+}
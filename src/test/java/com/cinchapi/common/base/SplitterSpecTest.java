@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2013-2017 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+
+/**
+ * Unit tests for {@link SplitterSpec}.
+ *
+ * @author Jeff Nelson
+ */
+public class SplitterSpecTest {
+
+    @Test
+    public void testSpecMatchesStringSplitter() {
+        String string = "a, b (c)\nd,, e,,";
+        SplitterSpec spec = SplitterSpec.builder().delimiter(',')
+                .options(SplitOption.SPLIT_ON_NEWLINE,
+                        SplitOption.TOKENIZE_PARENTHESIS,
+                        SplitOption.TRIM_WHITESPACE)
+                .build();
+        String[] expected = new StringSplitter(string, ',',
+                SplitOption.SPLIT_ON_NEWLINE, SplitOption.TOKENIZE_PARENTHESIS,
+                SplitOption.TRIM_WHITESPACE).toArray();
+        Assert.assertArrayEquals(expected, spec.split(string).toArray());
+        Assert.assertArrayEquals(expected, spec
+                .split(string.toCharArray(), 0, string.length()).toArray());
+        Assert.assertArrayEquals(expected,
+                spec.split(new StringReader(string)).toArray());
+        Assert.assertArrayEquals(expected,
+                spec.split(ByteBuffer
+                        .wrap(string.getBytes(StandardCharsets.UTF_8)))
+                        .toArray());
+    }
+
+    @Test
+    public void testQuoteAwareSpec() {
+        String string = "it's, \"a, b\", 'c, d'";
+        SplitterSpec spec = SplitterSpec.builder().delimiter(',').quoteAware()
+                .options(SplitOption.DROP_QUOTES, SplitOption.TRIM_WHITESPACE)
+                .build();
+        StringSplitter splitter = spec.split(string);
+        Assert.assertTrue(splitter instanceof QuoteAwareStringSplitter);
+        Assert.assertArrayEquals(new QuoteAwareStringSplitter(string, ',',
+                SplitOption.DROP_QUOTES, SplitOption.TRIM_WHITESPACE).toArray(),
+                splitter.toArray());
+    }
+
+    @Test
+    public void testWrappedSpec() {
+        String string = "a, b.{c, d}, e";
+        SplitterSpec spec = SplitterSpec.builder().delimiter(',')
+                .wrappers('{', '}').options(SplitOption.TRIM_WHITESPACE)
+                .build();
+        StringSplitter splitter = spec.split(string);
+        Assert.assertTrue(splitter instanceof WrapperAwareStringSplitter);
+        Assert.assertArrayEquals(new String[] { "a", "b.{c, d}", "e" },
+                splitter.toArray());
+    }
+
+    @Test
+    public void testNewSplitterCanBeReset() {
+        SplitterSpec spec = SplitterSpec.builder().delimiter(',').build();
+        StringSplitter splitter = spec.newSplitter();
+        splitter.reset("a,b");
+        Assert.assertArrayEquals(new String[] { "a", "b" },
+                splitter.toArray());
+        splitter.reset("c,,d");
+        Assert.assertArrayEquals(new String[] { "c", "", "d" },
+                splitter.toArray());
+    }
+
+    @Test
+    public void testThreadLocalSpec() {
+        SplitterSpec spec = SplitterSpec.builder().delimiter(',').quoteAware()
+                .build();
+        ThreadLocalStringSplitter<StringSplitter> splitters = ThreadLocalStringSplitter
+                .create(spec);
+        Assert.assertArrayEquals(new String[] { "a", "\"b,c\"" },
+                splitters.split("a,\"b,c\"").toArray());
+    }
+
+    @Test
+    public void testQuoteAwareMultiCharDelimiter() {
+        SplitterSpec spec = SplitterSpec.builder().delimiter("||").quoteAware()
+                .options(SplitOption.DROP_QUOTES).build();
+        Assert.assertArrayEquals(new String[] { "a", "b||c", "|d" },
+                spec.split("a||\"b||c\"|||d").toArray());
+        Assert.assertArrayEquals(new char[] { '|', '|' }, spec.delimiters());
+        Assert.assertTrue(spec.hasMultiCharDelimiter());
+    }
+
+    @Test
+    public void testDelimiterSet() {
+        SplitterSpec spec = SplitterSpec.builder().delimiters('\t', ';', ',')
+                .build();
+        Assert.assertArrayEquals(new String[] { "a", "b", "c", "", "d" },
+                spec.split("a\tb;c,,d").toArray());
+        Assert.assertArrayEquals(new String[] { "a", "b", "c", "", "d" },
+                spec.split(ByteBuffer.wrap(
+                        "a\tb;c,,d".getBytes(StandardCharsets.UTF_8)))
+                        .toArray());
+    }
+
+    @Test
+    public void testParallelStreamMatchesSplit() {
+        Random random = new Random(17);
+        SplitterSpec[] specs = { SplitterSpec.builder().delimiter(',').build(),
+                SplitterSpec.builder().delimiter(',')
+                        .options(SplitOption.TOKENIZE_PARENTHESIS,
+                                SplitOption.TRIM_WHITESPACE,
+                                SplitOption.SPLIT_ON_NEWLINE)
+                        .build(),
+                SplitterSpec.builder().delimiters(',', ' ').build(),
+                SplitterSpec.builder().delimiter(",,").build(),
+                SplitterSpec.builder().delimiter(',').quoteAware()
+                        .options(SplitOption.DROP_QUOTES,
+                                SplitOption.TRIM_WHITESPACE)
+                        .build(),
+                SplitterSpec.builder().delimiter(',').wrappers('{', '}')
+                        .build(),
+                SplitterSpec.builder().delimiter(',').quoteAware()
+                        .wrappers('{', '}').wrappers('(', ')').build() };
+        for (SplitterSpec spec : specs) {
+            String string = random("ab ,,,()'\"{}\n", 300000, random);
+            String[] expected = spec.split(string).toArray();
+            Assert.assertArrayEquals(expected, spec.stream(string).parallel()
+                    .toArray(String[]::new));
+            Assert.assertArrayEquals(expected,
+                    StreamSupport
+                            .stream(spec.spliterator(
+                                    string.toCharArray(), 0, string.length()),
+                                    true)
+                            .toArray(String[]::new));
+            Assert.assertArrayEquals(expected,
+                    StreamSupport.stream(spec.spliterator(CharBuffer.wrap(
+                            ("xyz" + string).toCharArray(), 3,
+                            string.length())), true).toArray(String[]::new));
+            Assert.assertArrayEquals(expected, StreamSupport
+                    .stream(spec.spliterator(ByteBuffer
+                            .wrap(string.getBytes(StandardCharsets.UTF_8))),
+                            true)
+                    .toArray(String[]::new));
+        }
+    }
+
+    @Test
+    public void testSpliteratorSplitsLargeInput() {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 4 * StringSplitterSpliterator.CHUNK_SIZE) {
+            sb.append("(,,,a,b,\"c,d\",");
+        }
+        String string = sb.toString();
+        SplitterSpec local = SplitterSpec.builder().delimiter(',')
+                .options(SplitOption.TOKENIZE_PARENTHESIS).build();
+        SplitterSpec quoted = SplitterSpec.builder().delimiter(',')
+                .quoteAware().build();
+        SplitterSpec sequence = SplitterSpec.builder().delimiter(",,")
+                .build();
+        SplitterSpec wrapped = SplitterSpec.builder().delimiter(',')
+                .wrappers('{', '}').build();
+        for (SplitterSpec spec : new SplitterSpec[] { local, quoted, sequence,
+                wrapped }) {
+            Spliterator<String> spliterator = spec.spliterator(string);
+            Spliterator<String> prefix = spliterator.trySplit();
+            Assert.assertNotNull(prefix);
+            List<String> actual = new ArrayList<>();
+            prefix.forEachRemaining(actual::add);
+            spliterator.forEachRemaining(actual::add);
+            Assert.assertEquals(Arrays.asList(spec.split(string).toArray()),
+                    actual);
+        }
+    }
+
+    @Test
+    public void testSpliteratorEstimatesTokens() {
+        SplitterSpec spec = SplitterSpec.builder().delimiter(',').build();
+        Assert.assertEquals(3, spec.spliterator("a,b,c").estimateSize());
+        String string = Strings.repeat("ab,",
+                4 * StringSplitterSpliterator.CHUNK_SIZE);
+        Spliterator<String> spliterator = spec.spliterator(string);
+        long tokens = 4 * StringSplitterSpliterator.CHUNK_SIZE;
+        Assert.assertEquals(tokens, spliterator.estimateSize(), tokens / 100);
+        Spliterator<String> prefix = spliterator.trySplit();
+        Assert.assertEquals(tokens / 2, prefix.estimateSize(), tokens / 100);
+        Assert.assertEquals(tokens / 2, spliterator.estimateSize(),
+                tokens / 100);
+    }
+
+    @Test
+    public void testSpliteratorDoesNotSplitSmallInput() {
+        SplitterSpec spec = SplitterSpec.builder().delimiter(',').build();
+        Spliterator<String> spliterator = spec.spliterator("a,b,c");
+        Assert.assertNull(spliterator.trySplit());
+        Assert.assertTrue(
+                spliterator.hasCharacteristics(Spliterator.ORDERED));
+        Assert.assertArrayEquals(new String[] { "a", "b", "c" },
+                StreamSupport.stream(spliterator, false)
+                        .toArray(String[]::new));
+    }
+
+    @Test
+    public void testQuoteAwareAndWrappedSpec() {
+        String string = "{\"a\": [1, \"]\"]}, '{', (b, c)";
+        SplitterSpec spec = SplitterSpec.builder().delimiter(',').quoteAware()
+                .wrappers('{', '}').wrappers('[', ']').wrappers('(', ')')
+                .options(SplitOption.TRIM_WHITESPACE).build();
+        StringSplitter splitter = spec.split(string);
+        Assert.assertTrue(
+                splitter instanceof QuoteAndWrapperAwareStringSplitter);
+        Assert.assertArrayEquals(
+                new String[] { "{\"a\": [1, \"]\"]}", "'{'", "(b, c)" },
+                splitter.toArray());
+        Assert.assertArrayEquals("{}[]()".toCharArray(), spec.wrappers());
+    }
+
+    @Test
+    public void testMultipleWrappersSpec() {
+        String string = "{a, [b}, c]}, \"[\", d], e";
+        SplitterSpec spec = SplitterSpec.builder().delimiter(',')
+                .wrappers('{', '}').wrappers('[', ']')
+                .options(SplitOption.TRIM_WHITESPACE).build();
+        StringSplitter splitter = spec.split(string);
+        Assert.assertTrue(splitter instanceof MultiWrapperAwareStringSplitter);
+        Assert.assertArrayEquals(
+                new String[] { "{a, [b}, c]}", "\"[\", d]", "e" },
+                splitter.toArray());
+        Assert.assertArrayEquals("{}[]".toCharArray(), spec.wrappers());
+    }
+
+    @Test
+    public void testSingleWrapperSpec() {
+        SplitterSpec spec = SplitterSpec.builder().delimiter(',')
+                .wrappers('{', '}').build();
+        Assert.assertTrue(
+                spec.newSplitter() instanceof WrapperAwareStringSplitter);
+        Assert.assertEquals('{', spec.wrapperStart());
+        Assert.assertEquals('}', spec.wrapperEnd());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWrapperStartRequiresSinglePair() {
+        SplitterSpec.builder().wrappers('[', ']').wrappers('{', '}').build()
+                .wrapperStart();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWrapperEndRequiresSinglePair() {
+        SplitterSpec.builder().quoteAware().wrappers('[', ']')
+                .wrappers('{', '}').build().wrapperEnd();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuoteCannotBeWrapper() {
+        SplitterSpec.builder().quoteAware().wrappers('"', '|').build();
+    }
+
+    /**
+     * Return a random string of {@code length} chars from the
+     * {@code alphabet}.
+     * 
+     * @param alphabet
+     * @param length
+     * @param random
+     * @return the random string
+     */
+    private static String random(String alphabet, int length, Random random) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; ++i) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+
+}
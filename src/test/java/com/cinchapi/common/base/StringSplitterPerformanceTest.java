@@ -22,6 +22,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import com.cinchapi.common.profile.Benchmark;
+import com.google.common.base.Strings;
 
 /**
  * Unit tests to verify that {@link StringSplitter} is faster than alternative
@@ -96,4 +97,123 @@ public class StringSplitterPerformanceTest {
         Assert.assertTrue(splitterTime < builtInTime);
     }
 
+    @Test
+    @Ignore
+    public void testSkipNonSplitChars() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            sb.append("Anacostia follows the lives of the residents of a small "
+                    + "residential community in Washington D.C. as they "
+                    + "navigate through love and betrayal");
+            sb.append(',');
+        }
+        String string = sb.toString();
+        int rounds = 5000;
+        Benchmark fullScan = new Benchmark(TimeUnit.MICROSECONDS) {
+
+            @Override
+            public void action() {
+                StringSplitter splitter = new StringSplitter(string, ',') {
+
+                    @Override
+                    protected char[] updateIsReadyToSplitChars() {
+                        return null;
+                    }
+
+                };
+                while (splitter.hasNext()) {
+                    splitter.nextToken();
+                }
+            }
+
+        };
+
+        Benchmark skip = new Benchmark(TimeUnit.MICROSECONDS) {
+
+            @Override
+            public void action() {
+                StringSplitter splitter = new StringSplitter(string, ',');
+                while (splitter.hasNext()) {
+                    splitter.nextToken();
+                }
+            }
+
+        };
+        double fullScanTime = fullScan.average(rounds);
+        double skipTime = skip.average(rounds);
+        System.out.println("Full Scan: " + fullScanTime);
+        System.out.println("Skip: " + skipTime);
+        Assert.assertTrue(skipTime < fullScanTime);
+    }
+
+    @Test
+    @Ignore
+    public void testProjectWideRow() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; ++i) {
+            sb.append("value").append(i).append(',');
+        }
+        String string = sb.toString();
+        int rounds = 5000;
+        Benchmark toArray = new Benchmark(TimeUnit.MICROSECONDS) {
+
+            @Override
+            public void action() {
+                String[] tokens = new StringSplitter(string, ',').toArray();
+                Assert.assertEquals("value17", tokens[17]);
+            }
+
+        };
+
+        Benchmark project = new Benchmark(TimeUnit.MICROSECONDS) {
+
+            @Override
+            public void action() {
+                String[] tokens = new StringSplitter(string, ',').project(3,
+                        17);
+                Assert.assertEquals("value17", tokens[1]);
+            }
+
+        };
+        double toArrayTime = toArray.average(rounds);
+        double projectTime = project.average(rounds);
+        System.out.println("To Array: " + toArrayTime);
+        System.out.println("Project: " + projectTime);
+        Assert.assertTrue(projectTime < toArrayTime);
+    }
+
+    @Test
+    @Ignore
+    public void testSparseRow() {
+        String string = "id" + Strings.repeat(",", 200000) + "value";
+        int rounds = 50;
+        Benchmark builtIn = new Benchmark(TimeUnit.MICROSECONDS) {
+
+            @Override
+            public void action() {
+                string.split(",");
+            }
+
+        };
+
+        Benchmark splitter = new Benchmark(TimeUnit.MICROSECONDS) {
+
+            @Override
+            public void action() {
+                StringSplitter splitter = new StringSplitter(string, ',');
+                while (splitter.hasNext()) {
+                    splitter.nextToken();
+                }
+            }
+
+        };
+        double builtInTime = builtIn.average(rounds);
+        double splitterTime = splitter.average(rounds);
+        System.out.println("Built-In: " + builtInTime);
+        System.out.println("Splitter: " + splitterTime);
+        // A quadratic search for trailing empty tokens would be orders of
+        // magnitude slower than the built-in, linear split
+        Assert.assertTrue(splitterTime < builtInTime * 3);
+    }
+
 }
@@ -15,15 +15,30 @@
  */
 package com.cinchapi.common.base;
 
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
@@ -280,6 +295,546 @@ public class StringSplitterTest {
         Assert.assertArrayEquals(new String[0], it.toArray());
     }
 
+    @Test
+    public void testSplitCharArrayRange() {
+        char[] chars = "xx,a, b,,c ,yy".toCharArray();
+        StringSplitter it = new StringSplitter(chars, 3, 9, ',',
+                SplitOption.TRIM_WHITESPACE);
+        Assert.assertArrayEquals(new String[] { "a", "b", "", "c" },
+                it.toArray());
+    }
+
+    @Test
+    public void testSplitCharSequence() {
+        StringBuilder sb = new StringBuilder("a,b,\nc,d");
+        StringSplitter it = new StringSplitter(sb, ',');
+        Assert.assertArrayEquals(
+                new StringSplitter(sb.toString(), ',').toArray(),
+                it.toArray());
+    }
+
+    @Test
+    public void testSplitCharBuffer() {
+        CharBuffer buffer = CharBuffer.wrap("xxa b c".toCharArray());
+        buffer.position(2);
+        StringSplitter it = new StringSplitter(buffer, ' ');
+        Assert.assertArrayEquals(new String[] { "a", "b", "c" }, it.toArray());
+        Assert.assertEquals(2, buffer.position());
+        it = new StringSplitter(buffer.asReadOnlyBuffer(), ' ');
+        Assert.assertArrayEquals(new String[] { "a", "b", "c" }, it.toArray());
+    }
+
+    @Test
+    public void testResetCharArrayRange() {
+        char[] chars = "a,b,c,d".toCharArray();
+        StringSplitter it = new StringSplitter(chars, 2, 3, ',');
+        Assert.assertEquals("b", it.next());
+        it.reset();
+        Assert.assertArrayEquals(new String[] { "b", "c" }, it.toArray());
+    }
+
+    @Test
+    public void testNextTokenRanges() {
+        char[] chars = "xx,a, bc,,d".toCharArray();
+        StringSplitter it = new StringSplitter(chars, 3, 8, ',',
+                SplitOption.TRIM_WHITESPACE);
+        StringSplitter.Token token = it.nextToken();
+        Assert.assertEquals(3, token.offset());
+        Assert.assertEquals(1, token.length());
+        token = it.nextToken();
+        Assert.assertEquals(6, token.offset());
+        Assert.assertEquals(2, token.length());
+        Assert.assertTrue(token.contentEquals("bc"));
+        Assert.assertEquals('c', token.charAt(1));
+        token = it.nextToken();
+        Assert.assertEquals(0, token.length());
+        Assert.assertEquals("d", it.nextToken().toString());
+        Assert.assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void testForEachTokenMatchesNext() {
+        String string = "a,b\n(c),,d\r\ne,";
+        SplitOption[] options = { SplitOption.SPLIT_ON_NEWLINE,
+                SplitOption.TOKENIZE_PARENTHESIS };
+        List<String> actual = Lists.newArrayList();
+        new StringSplitter(string, ',', options)
+                .forEachToken(token -> actual.add(token.toString()));
+        Assert.assertEquals(Lists.newArrayList(
+                new StringSplitter(string, ',', options).toArray()), actual);
+    }
+
+    @Test
+    public void testResetWithNewSource() {
+        StringSplitter it = new StringSplitter("a b\r", ' ',
+                SplitOption.SPLIT_ON_NEWLINE);
+        Assert.assertEquals("a", it.next());
+        it.reset("\nc d");
+        Assert.assertArrayEquals(new String[] { "", "c", "d" }, it.toArray());
+        it.reset("xe,f".toCharArray(), 1, 3);
+        Assert.assertArrayEquals(new String[] { "e,f" }, it.toArray());
+    }
+
+    @Test
+    public void testSplitReader() {
+        StringBuilder sb = new StringBuilder();
+        Random random = new Random();
+        for (int i = 0; i < 20000; ++i) {
+            sb.append(random.nextInt(1000));
+            sb.append(random.nextInt(10) == 0 ? ",," : " ,");
+            if(random.nextInt(50) == 0) {
+                sb.append(random.nextBoolean() ? "\r\n" : "\n");
+            }
+        }
+        sb.append(",,,");
+        String string = sb.toString();
+        SplitOption[] options = { SplitOption.SPLIT_ON_NEWLINE,
+                SplitOption.TRIM_WHITESPACE };
+        StringSplitter expected = new StringSplitter(string, ',', options);
+        StringSplitter actual = new StringSplitter(
+                new ChunkedReader(string, random), ',', options);
+        while (expected.hasNext()) {
+            Assert.assertEquals(expected.next(), actual.next());
+            Assert.assertEquals(expected.atEndOfLine(), actual.atEndOfLine());
+        }
+        Assert.assertFalse(actual.hasNext());
+    }
+
+    @Test
+    public void testSplitReaderTokenLargerThanBuffer() {
+        String large = Strings.repeat("a", 100000);
+        StringSplitter it = new StringSplitter(
+                new StringReader("b," + large + ",c"), ',');
+        Assert.assertEquals("b", it.next());
+        StringSplitter.Token token = it.nextToken();
+        Assert.assertEquals(2, token.offset());
+        Assert.assertEquals(large, token.toString());
+        Assert.assertEquals("c", it.next());
+        Assert.assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void testSplitReaderBeyondIntegerRange() {
+        String record = Strings.repeat("x", 1023) + ",";
+        long records = (Integer.MAX_VALUE / record.length()) + 16;
+        StringSplitter it = new StringSplitter(
+                new RepeatingReader(record, records), ',');
+        long count = 0;
+        StringSplitter.Token token = null;
+        while (it.hasNext()) {
+            token = it.nextToken();
+            Assert.assertEquals(1023, token.length());
+            Assert.assertEquals(count * record.length(), token.offset());
+            ++count;
+        }
+        Assert.assertEquals(records, count);
+        Assert.assertTrue(token.offset() > Integer.MAX_VALUE);
+        Assert.assertEquals(record.substring(0, 1023), token.toString());
+    }
+
+    @Test
+    public void testSplitChannel() {
+        String string = "caf\u00e9,na\u00efve,\u65e5\u672c";
+        StringSplitter it = new StringSplitter(
+                Channels.newChannel(new ByteArrayInputStream(
+                        string.getBytes(StandardCharsets.UTF_8))),
+                StandardCharsets.UTF_8, ',');
+        Assert.assertArrayEquals(string.split(","), it.toArray());
+    }
+
+    @Test
+    public void testSplitByteBuffer() {
+        String[] alphabet = { "a", "Z", "7", " ", "\u00e9", "\u65e5",
+                "\ud83d\ude00", "\u2003", ",", ",", "\n", "\r", "(", "\"" };
+        Random random = new Random();
+        SplitOption[][] options = { {}, { SplitOption.TRIM_WHITESPACE },
+                { SplitOption.SPLIT_ON_NEWLINE, SplitOption.TRIM_WHITESPACE },
+                { SplitOption.TOKENIZE_PARENTHESIS } };
+        for (int i = 0; i < 500; ++i) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; ++j) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String string = sb.toString();
+            byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer heap = ByteBuffer.wrap(utf8);
+            ByteBuffer direct = ByteBuffer.allocateDirect(utf8.length + 2);
+            direct.put((byte) 'x').put(utf8).flip().position(1);
+            for (SplitOption[] opts : options) {
+                String[] expected = new StringSplitter(string, ',', opts)
+                        .toArray();
+                Assert.assertArrayEquals(string, expected,
+                        new StringSplitter(heap, ',', opts).toArray());
+                Assert.assertArrayEquals(string, expected,
+                        new StringSplitter(direct, ',', opts).toArray());
+            }
+            Assert.assertEquals(0, heap.position());
+            Assert.assertEquals(1, direct.position());
+        }
+    }
+
+    @Test
+    public void testNextTokenByteRanges() {
+        byte[] utf8 = "xcaf\u00e9,\u65e5\u672c,ok"
+                .getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(utf8, 1, utf8.length - 1).slice();
+        StringSplitter it = new StringSplitter(buffer, ',');
+        StringSplitter.Token token = it.nextToken();
+        Assert.assertEquals(0, token.offset());
+        Assert.assertEquals(5, token.length());
+        Assert.assertTrue(token.contentEquals("caf\u00e9"));
+        Assert.assertFalse(token.contentEquals("cafe"));
+        token = it.nextToken();
+        Assert.assertEquals(6, token.offset());
+        Assert.assertEquals(6, token.length());
+        Assert.assertEquals("\u65e5\u672c", token.toString());
+        token = it.nextToken();
+        Assert.assertTrue(token.contentEquals("ok"));
+        Assert.assertFalse(it.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCannotSplitByteBufferOnNonAsciiDelimiter() {
+        new StringSplitter(ByteBuffer.allocate(0), '\u00e9');
+    }
+
+    @Test
+    public void testSkipNonSplitCharsMatchesFullScan() {
+        String alphabet = "abc XYZ,,\n\r()'\"\\{}\u00e9";
+        Random random = new Random();
+        SplitOption[][] options = { {},
+                { SplitOption.SPLIT_ON_NEWLINE, SplitOption.TRIM_WHITESPACE },
+                { SplitOption.TOKENIZE_PARENTHESIS },
+                { SplitOption.DROP_QUOTES } };
+        for (int i = 0; i < 1000; ++i) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(60);
+            for (int j = 0; j < length; ++j) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String string = sb.toString();
+            for (SplitOption[] opts : options) {
+                Assert.assertArrayEquals(string,
+                        new QuoteAwareStringSplitter(string, ',', opts) {
+
+                            @Override
+                            protected char[] updateIsReadyToSplitChars() {
+                                return null;
+                            }
+
+                        }.toArray(),
+                        new QuoteAwareStringSplitter(string, ',', opts)
+                                .toArray());
+                Assert.assertArrayEquals(string,
+                        new WrapperAwareStringSplitter('{', '}', string, ',',
+                                opts) {
+
+                            @Override
+                            protected char[] updateIsReadyToSplitChars() {
+                                return null;
+                            }
+
+                        }.toArray(), new WrapperAwareStringSplitter('{', '}',
+                                string, ',', opts).toArray());
+            }
+        }
+    }
+
+    @Test
+    public void testSparseRow() {
+        Random random = new Random();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100000; ++i) {
+            if(random.nextInt(1000) == 0) {
+                sb.append(i);
+            }
+            sb.append(',');
+        }
+        String string = sb.toString();
+        Assert.assertArrayEquals(string.split(","),
+                new StringSplitter(string, ',').toArray());
+        Assert.assertArrayEquals(string.split(","),
+                new StringSplitter(new StringReader(string), ',').toArray());
+    }
+
+    @Test
+    public void testSplitOnDelimiterSet() {
+        String alphabet = "ab \t;,|\u00e9";
+        Random random = new Random();
+        char[] delimiters = { '\t', ';', ',', '\u00e9' };
+        for (int i = 0; i < 1000; ++i) {
+            String string = random(alphabet, random.nextInt(40) + 1, random);
+            Assert.assertArrayEquals(string, string.split("[\t;,\u00e9]"),
+                    new StringSplitter(string, delimiters).toArray());
+        }
+    }
+
+    @Test
+    public void testSplitOnMultiCharDelimiter() {
+        String alphabet = "ab|||,";
+        Random random = new Random();
+        for (int i = 0; i < 1000; ++i) {
+            String string = random(alphabet, random.nextInt(40) + 1, random);
+            Assert.assertArrayEquals(string, string.split("\\|\\|"),
+                    new StringSplitter(string, "||").toArray());
+            Assert.assertArrayEquals(string, string.split("\\|,"),
+                    SplitterSpec.builder().delimiter("|,").build()
+                            .split(new StringReader(string)).toArray());
+        }
+    }
+
+    @Test
+    public void testSplitOnMultiCharDelimiterWithOptions() {
+        String string = " a :: b\n::c ::(d)::";
+        Assert.assertArrayEquals(
+                new String[] { "a", "b", "", "c", "(", "d", ")" },
+                new StringSplitter(string, "::", SplitOption.TRIM_WHITESPACE,
+                        SplitOption.SPLIT_ON_NEWLINE,
+                        SplitOption.TOKENIZE_PARENTHESIS).toArray());
+    }
+
+    @Test
+    public void testSpliteratorIsSizedFromDelimiterCount() {
+        String alphabet = "ab ,,|\"";
+        Random random = new Random();
+        for (int i = 0; i < 1000; ++i) {
+            String string = random(alphabet, random.nextInt(40), random);
+            StringSplitter[] splitters = {
+                    new StringSplitter(string, ',',
+                            SplitOption.TRIM_WHITESPACE,
+                            SplitOption.DROP_QUOTES),
+                    new StringSplitter(string, new char[] { ',', '|' }),
+                    new StringSplitter(string, ",,"),
+                    new StringSplitter(ByteBuffer
+                            .wrap(string.getBytes(StandardCharsets.UTF_8)),
+                            ',') };
+            for (StringSplitter splitter : splitters) {
+                splitter.reset();
+                String[] expected = splitter.toArray();
+                splitter.reset();
+                if(expected.length > 0 && random.nextBoolean()) {
+                    splitter.next();
+                    expected = Arrays.copyOfRange(expected, 1,
+                            expected.length);
+                }
+                Spliterator<String> spliterator = splitter.spliterator();
+                Assert.assertTrue(spliterator.hasCharacteristics(
+                        Spliterator.ORDERED | Spliterator.NONNULL));
+                Assert.assertEquals(string, expected.length,
+                        spliterator.getExactSizeIfKnown());
+                Assert.assertArrayEquals(string, expected,
+                        StreamSupport.stream(spliterator, false)
+                                .toArray(String[]::new));
+            }
+        }
+    }
+
+    @Test
+    public void testSpliteratorIsNotSizedWhenTokensCannotBeCounted() {
+        String string = "a,(b,c)\nd,,";
+        StringSplitter splitter = new StringSplitter(string, ',',
+                SplitOption.TOKENIZE_PARENTHESIS,
+                SplitOption.SPLIT_ON_NEWLINE);
+        Assert.assertEquals(-1, splitter.spliterator().getExactSizeIfKnown());
+        Assert.assertEquals(
+                Arrays.asList("a", "(", "b", "c", ")", "d"),
+                splitter.stream().collect(Collectors.toList()));
+        Assert.assertEquals(-1,
+                new QuoteAwareStringSplitter("a,'b,c'", ',').spliterator()
+                        .getExactSizeIfKnown());
+        Assert.assertEquals(-1,
+                new StringSplitter(new StringReader("a,b"), ',').spliterator()
+                        .getExactSizeIfKnown());
+    }
+
+    @Test
+    public void testSplitterIsIterator() {
+        Iterator<String> it = new StringSplitter("a,b,,c,,", ',');
+        List<String> actual = Lists.newArrayList(it);
+        Assert.assertEquals(Arrays.asList("a", "b", "", "c"), actual);
+    }
+
+    @Test
+    public void testProjectFields() {
+        String alphabet = "ab ,,";
+        Random random = new Random();
+        for (int i = 0; i < 1000; ++i) {
+            String string = random(alphabet, random.nextInt(40), random);
+            String[] tokens = new StringSplitter(string, ',').toArray();
+            int[] fields = new int[random.nextInt(5)];
+            for (int j = 0; j < fields.length; ++j) {
+                fields[j] = random.nextInt(tokens.length + 2);
+            }
+            String[] expected = new String[fields.length];
+            for (int j = 0; j < fields.length; ++j) {
+                expected[j] = fields[j] < tokens.length ? tokens[fields[j]]
+                        : null;
+            }
+            Assert.assertArrayEquals(string, expected,
+                    new StringSplitter(string, ',').project(fields));
+            Assert.assertArrayEquals(string,
+                    Arrays.stream(tokens)
+                            .filter(token -> token.length() > 1)
+                            .toArray(),
+                    new StringSplitter(string, ',').project(
+                            field -> tokens.length > field
+                                    && tokens[field].length() > 1));
+        }
+    }
+
+    @Test
+    public void testProjectStopsAfterLastField() {
+        StringSplitter splitter = new StringSplitter("a,b,c,d,e", ',');
+        Assert.assertArrayEquals(new String[] { "c", "a", "c" },
+                splitter.project(2, 0, 2));
+        Assert.assertEquals("d", splitter.next());
+    }
+
+    @Test
+    public void testProjectEachLine() {
+        StringSplitter splitter = new StringSplitter("a,b,c\nd,e,f\ng", ',',
+                SplitOption.SPLIT_ON_NEWLINE);
+        Assert.assertArrayEquals(new String[] { "b" }, splitter.project(1));
+        Assert.assertArrayEquals(new String[] { "f", "d" },
+                splitter.project(2, 0));
+        Assert.assertArrayEquals(new String[] { null, "g" },
+                splitter.project(1, 0));
+        Assert.assertFalse(splitter.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCannotProjectNegativeField() {
+        new StringSplitter("a,b", ',').project(-1);
+    }
+
+    @Test
+    public void testTypedAccessorsMatchTryParse() {
+        List<String> values = Lists.newArrayList("0", "-0", "007", "0.5",
+                "-.5", "1.", ".", "-", "-D", "5D", "0D", "1.5D", "1eD", "1e5",
+                "1E-5", "e5", "1e5.3", "1e5-3", "1.2.3", "+5", "12a",
+                "2147483647", "2147483648", "-2147483648", "-2147483649",
+                "9223372036854775807", "-9223372036854775808",
+                "9223372036854775808", "0.1", "3.14159", "1.1",
+                "123456789.123456789", "1e400", "4.9e-324", "\u0661\u0662",
+                "\u0661.5", "true", "FALSE", "TRue", "yes", "");
+        Random random = new Random();
+        for (int i = 0; i < 2000; ++i) {
+            values.add(random("0123456789.-eED", random.nextInt(8) + 1,
+                    random));
+            values.add(Double.toString(random.nextDouble()
+                    * Math.pow(10, random.nextInt(40) - 20)));
+            values.add(Float.toString(random.nextFloat()));
+            values.add(Long.toString(random.nextLong() >> random.nextInt(64)));
+        }
+        for (String value : values) {
+            Number expected;
+            try {
+                expected = AnyStrings.tryParseNumber(value);
+            }
+            catch (NumberFormatException e) {
+                expected = null;
+            }
+            StringSplitter[] splitters = { new StringSplitter(value, ','),
+                    new StringSplitter(ByteBuffer.wrap(
+                            value.getBytes(StandardCharsets.UTF_8)), ',') };
+            for (StringSplitter splitter : splitters) {
+                if(!splitter.hasNext()) {
+                    continue;
+                }
+                Assert.assertEquals(value, expected instanceof Integer,
+                        splitter.hasNextInt());
+                if(expected instanceof Integer) {
+                    Assert.assertEquals(value, expected, splitter.nextInt());
+                    splitter.reset();
+                }
+                else {
+                    assertThrows(InputMismatchException.class,
+                            splitter::nextInt);
+                }
+                boolean isLong = expected instanceof Integer
+                        || expected instanceof Long;
+                Assert.assertEquals(value, isLong, splitter.hasNextLong());
+                if(isLong) {
+                    Assert.assertEquals(value, expected.longValue(),
+                            splitter.nextLong());
+                    splitter.reset();
+                }
+                else {
+                    assertThrows(InputMismatchException.class,
+                            splitter::nextLong);
+                }
+                Assert.assertEquals(value, expected != null,
+                        splitter.hasNextNumber());
+                Assert.assertEquals(value, expected != null,
+                        splitter.hasNextDouble());
+                if(expected != null) {
+                    double d = expected instanceof Float
+                            ? Double.parseDouble(value)
+                            : expected.doubleValue();
+                    Assert.assertEquals(value, d, splitter.nextDouble(), 0);
+                    splitter.reset();
+                    Assert.assertEquals(value, expected,
+                            splitter.nextNumber());
+                    splitter.reset();
+                }
+                else {
+                    assertThrows(InputMismatchException.class,
+                            splitter::nextNumber);
+                    assertThrows(InputMismatchException.class,
+                            splitter::nextDouble);
+                }
+                Boolean bool = AnyStrings.tryParseBoolean(value);
+                Assert.assertEquals(value, bool != null,
+                        splitter.hasNextBoolean());
+                if(bool != null) {
+                    Assert.assertEquals(value, bool, splitter.nextBoolean());
+                }
+                else {
+                    assertThrows(InputMismatchException.class,
+                            splitter::nextBoolean);
+                    Assert.assertEquals(value, splitter.next());
+                }
+                Assert.assertFalse(splitter.hasNext());
+            }
+        }
+    }
+
+    @Test
+    public void testTypedAccessorsConsumeTokens() {
+        StringSplitter splitter = new StringSplitter("1, 2.5, x, 3, true",
+                ',', SplitOption.TRIM_WHITESPACE);
+        Assert.assertEquals(1, splitter.nextInt());
+        Assert.assertEquals(2.5, splitter.nextDouble(), 0);
+        Assert.assertFalse(splitter.hasNextLong());
+        assertThrows(InputMismatchException.class, splitter::nextLong);
+        assertThrows(InputMismatchException.class, splitter::nextNumber);
+        assertThrows(InputMismatchException.class, splitter::nextBoolean);
+        Assert.assertEquals("x", splitter.next());
+        Assert.assertEquals(3L, splitter.nextLong());
+        Assert.assertTrue(splitter.hasNextBoolean());
+        Assert.assertTrue(splitter.nextBoolean());
+        Assert.assertFalse(splitter.hasNextInt());
+        assertThrows(NoSuchElementException.class, splitter::nextInt);
+    }
+
+    @Test
+    public void testHasNextDoesNotChangeToken() {
+        StringSplitter splitter = new StringSplitter("a,1", ',');
+        StringSplitter.Token token = splitter.nextToken();
+        Assert.assertTrue(splitter.hasNextInt());
+        Assert.assertEquals("a", token.toString());
+        Assert.assertEquals(1, splitter.nextInt());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCannotResetConsumedStream() {
+        String string = Strings.repeat("abc,", 10000);
+        StringSplitter it = new StringSplitter(new StringReader(string), ',');
+        it.toArray();
+        it.reset();
+    }
+
     /**
      * Execute the logic for the StringSplitter test.
      * 
@@ -309,4 +864,125 @@ public class StringSplitterTest {
         return new String(bytes);
     }
 
+    /**
+     * Return a random string of {@code length} chars from the
+     * {@code alphabet}.
+     * 
+     * @param alphabet
+     * @param length
+     * @param random
+     * @return the random string
+     */
+    private static String random(String alphabet, int length, Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; ++i) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A {@link Reader} that returns a random number of chars from a
+     * {@link String} on each read.
+     *
+     * @author Jeff Nelson
+     */
+    static class ChunkedReader extends Reader {
+
+        private final String string;
+        private final Random random;
+        private int pos = 0;
+
+        /**
+         * Construct a new instance.
+         * 
+         * @param string
+         * @param random
+         */
+        ChunkedReader(String string, Random random) {
+            this.string = string;
+            this.random = random;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if(pos == string.length()) {
+                return -1;
+            }
+            int n = Math.min(Math.min(len, random.nextInt(5000) + 1),
+                    string.length() - pos);
+            string.getChars(pos, pos + n, cbuf, off);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public void close() {}
+
+    }
+
+    /**
+     * A {@link Reader} that returns a {@link String} repeated a number of
+     * times, which may add up to more chars than can be held in memory.
+     *
+     * @author Jeff Nelson
+     */
+    static class RepeatingReader extends Reader {
+
+        private final char[] chars;
+        private final long length;
+        private long pos = 0;
+
+        /**
+         * Construct a new instance.
+         * 
+         * @param string
+         * @param times
+         */
+        RepeatingReader(String string, long times) {
+            this.chars = string.toCharArray();
+            this.length = chars.length * times;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if(pos == length) {
+                return -1;
+            }
+            int n = (int) Math.min(len, length - pos);
+            for (int i = 0; i < n;) {
+                int from = (int) ((pos + i) % chars.length);
+                int count = Math.min(n - i, chars.length - from);
+                System.arraycopy(chars, from, cbuf, off + i, count);
+                i += count;
+            }
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public void close() {}
+
+    }
+
+    /**
+     * Assert that the {@code action} throws an exception of the
+     * {@code expected} type.
+     * 
+     * @param expected
+     * @param action
+     */
+    private static void assertThrows(Class<? extends Throwable> expected,
+            Runnable action) {
+        try {
+            action.run();
+            Assert.fail("Expected " + expected.getSimpleName());
+        }
+        catch (Throwable e) {
+            if(!expected.isInstance(e)) {
+                throw e;
+            }
+        }
+    }
+
 }
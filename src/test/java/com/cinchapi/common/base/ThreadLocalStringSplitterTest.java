@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2013-2020 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ThreadLocalStringSplitter}.
+ *
+ * @author Jeff Nelson
+ */
+public class ThreadLocalStringSplitterTest {
+
+    @Test
+    public void testSplitterIsReusedByThread() {
+        ThreadLocalStringSplitter<StringSplitter> splitters = ThreadLocalStringSplitter
+                .create(',', SplitOption.TRIM_WHITESPACE);
+        StringSplitter splitter = splitters.split("a, b");
+        Assert.assertArrayEquals(new String[] { "a", "b" }, splitter.toArray());
+        Assert.assertSame(splitter, splitters.split("c"));
+        Assert.assertArrayEquals(new String[] { "c" }, splitter.toArray());
+    }
+
+    @Test
+    public void testSplitterIsNotSharedAcrossThreads()
+            throws InterruptedException {
+        ThreadLocalStringSplitter<QuoteAwareStringSplitter> splitters = ThreadLocalStringSplitter
+                .withInitial(() -> new QuoteAwareStringSplitter("", ','));
+        StringSplitter splitter = splitters.split("a,'b,c'");
+        AtomicReference<StringSplitter> other = new AtomicReference<>();
+        Thread thread = new Thread(() -> other.set(splitters.split("d")));
+        thread.start();
+        thread.join();
+        Assert.assertNotSame(splitter, other.get());
+        Assert.assertArrayEquals(new String[] { "a", "'b,c'" },
+                splitter.toArray());
+    }
+
+}
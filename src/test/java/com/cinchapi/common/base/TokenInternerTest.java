@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2013-2019 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cinchapi.common.base;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TokenInterner}.
+ *
+ * @author Jeff Nelson
+ */
+public class TokenInternerTest {
+
+    @Test
+    public void testSplitterReturnsCanonicalTokens() {
+        TokenInterner interner = new TokenInterner();
+        StringSplitter splitter = new StringSplitter("US,active,US,active,CA",
+                ',');
+        splitter.setInterner(interner);
+        String[] tokens = splitter.toArray();
+        Assert.assertArrayEquals(
+                new String[] { "US", "active", "US", "active", "CA" }, tokens);
+        Assert.assertSame(tokens[0], tokens[2]);
+        Assert.assertSame(tokens[1], tokens[3]);
+        Assert.assertEquals(2, interner.hits());
+        Assert.assertEquals(3, interner.misses());
+        Assert.assertEquals(0.4, interner.hitRate(), 0);
+    }
+
+    @Test
+    public void testInternerSurvivesReset() {
+        TokenInterner interner = new TokenInterner();
+        StringSplitter splitter = new StringSplitter("a1,b2", ',');
+        splitter.setInterner(interner);
+        String first = splitter.next();
+        splitter.reset("a1,c3");
+        Assert.assertSame(first, splitter.next());
+        Assert.assertEquals(1, interner.hits());
+    }
+
+    @Test
+    public void testLongTokensAreNotCached() {
+        TokenInterner interner = new TokenInterner(16, 4);
+        StringSplitter splitter = new StringSplitter("abcde,abcde", ',');
+        splitter.setInterner(interner);
+        String[] tokens = splitter.toArray();
+        Assert.assertEquals(tokens[0], tokens[1]);
+        Assert.assertNotSame(tokens[0], tokens[1]);
+        Assert.assertEquals(0, interner.hits() + interner.misses());
+    }
+
+    @Test
+    public void testCollisionsAreReplaced() {
+        TokenInterner interner = new TokenInterner(1, 8);
+        Assert.assertEquals(1, interner.capacity());
+        String a = interner.intern(new StringBuilder("a"));
+        Assert.assertEquals("b", interner.intern(new StringBuilder("b")));
+        Assert.assertNotSame(a, interner.intern(new StringBuilder("a")));
+        Assert.assertEquals(0, interner.hits());
+        Assert.assertEquals(3, interner.misses());
+    }
+
+    @Test
+    public void testCapacityIsRoundedUp() {
+        Assert.assertEquals(128, new TokenInterner(100, 8).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityCannotExceedUpperBound() {
+        new TokenInterner((1 << 30) + 1, 8);
+    }
+
+    @Test
+    public void testClear() {
+        TokenInterner interner = new TokenInterner();
+        String a = interner.intern(new StringBuilder("a1"));
+        Assert.assertSame(a, interner.intern(new StringBuilder("a1")));
+        interner.clear();
+        Assert.assertEquals(0, interner.hits());
+        Assert.assertNotSame(a, interner.intern(new StringBuilder("a1")));
+    }
+
+    @Test
+    public void testSplitBytes() {
+        TokenInterner interner = new TokenInterner();
+        String string = "ok,héllo,ok,héllo,é,Ã©";
+        StringSplitter splitter = new StringSplitter(
+                ByteBuffer.wrap(string.getBytes(StandardCharsets.UTF_8)), ',');
+        splitter.setInterner(interner);
+        String[] tokens = splitter.toArray();
+        Assert.assertArrayEquals(string.split(","), tokens);
+        Assert.assertSame(tokens[0], tokens[2]);
+        // Multi-byte tokens are decoded instead of interned
+        Assert.assertEquals(1, interner.hits());
+        Assert.assertEquals(1, interner.misses());
+    }
+
+}
@@ -15,12 +15,17 @@
  */
 package com.cinchapi.common.base;
 
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 
 /**
  * Unit tests for {@link WrapperAwareStringSplitter}.
@@ -50,4 +55,43 @@ public class WrapperAwareStringSplitterTest {
         Assert.assertEquals(ImmutableSet.of(string), actual);
     }
 
+    @Test
+    public void testForEachToken() {
+        String string = "a, b.{c, d}, e";
+        List<String> actual = Lists.newArrayList();
+        WrapperAwareStringSplitter.bracketAware(string, ',',
+                SplitOption.TRIM_WHITESPACE)
+                .forEachToken(token -> actual.add(token.toString()));
+        Assert.assertEquals(Lists.newArrayList("a", "b.{c, d}", "e"), actual);
+    }
+
+    @Test
+    public void testResetClearsWrapperState() {
+        StringSplitter it = WrapperAwareStringSplitter.bracketAware("{a, b",
+                ',');
+        Assert.assertEquals(1, it.toArray().length);
+        it.reset("c, d");
+        Assert.assertEquals(2, it.toArray().length);
+    }
+
+    @Test
+    public void testSplitReader() {
+        String string = "a, b.{c, d}, e";
+        StringSplitter it = new WrapperAwareStringSplitter('{', '}',
+                new StringReader(string), ',', SplitOption.TRIM_WHITESPACE);
+        Assert.assertArrayEquals(new String[] { "a", "b.{c, d}", "e" },
+                it.toArray());
+    }
+
+    @Test
+    public void testSplitByteBuffer() {
+        String string = "\u00e9, b.{\u65e5, d}, e";
+        StringSplitter it = new WrapperAwareStringSplitter('{', '}',
+                ByteBuffer.wrap(string.getBytes(StandardCharsets.UTF_8)), ',',
+                SplitOption.TRIM_WHITESPACE);
+        Assert.assertArrayEquals(
+                new String[] { "\u00e9", "b.{\u65e5, d}", "e" },
+                it.toArray());
+    }
+
 }